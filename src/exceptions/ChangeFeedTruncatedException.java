@@ -0,0 +1,7 @@
+package exceptions;
+
+public class ChangeFeedTruncatedException extends RuntimeException {
+    public ChangeFeedTruncatedException(String message) {
+        super(message);
+    }
+}
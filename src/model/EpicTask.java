@@ -1,12 +1,14 @@
 package model;
 
+import util.IntTreeSet;
+
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.List;
 
 public class EpicTask extends Task {
     private LocalDateTime endTime;
-    private ArrayList<Integer> subtasks = new ArrayList<>();
+    private IntTreeSet subtasks = new IntTreeSet();
 
     public EpicTask(String title, String description) {
         super(title, description);
@@ -17,6 +19,13 @@ public class EpicTask extends Task {
         super(id, title, description, status, duration, startTime);
     }
 
+    public EpicTask(EpicTask epic) {
+        super(epic.getId(), epic.getTitle(), epic.getDescription(), epic.getStatus(), epic.getDuration(),
+                epic.getStartTime());
+        this.endTime = epic.getEndTime();
+        this.subtasks = epic.subtasks == null ? new IntTreeSet() : epic.subtasks.copy();
+    }
+
     public TaskType getType() {
         return TaskType.EPIC;
     }
@@ -30,20 +39,31 @@ public class EpicTask extends Task {
         return endTime;
     }
 
-    public void addSubtask(Integer id) {
-        subtasks.add(id);
+    public void addSubtask(int id) {
+        linkedSubtasks().add(id);
     }
 
-    public ArrayList<Integer> getSubtasks() {
-        return subtasks;
+    public List<Integer> getSubtasks() {
+        return linkedSubtasks().asList();
     }
 
-    public void removeLinkedSubtask(Integer id) {
-        subtasks.remove(id);
+    public boolean hasSubtask(int id) {
+        return linkedSubtasks().contains(id);
+    }
+
+    public void removeLinkedSubtask(int id) {
+        linkedSubtasks().remove(id);
     }
 
     public void deleteSubtasks() {
-        subtasks.clear();
+        linkedSubtasks().clear();
+    }
+
+    private IntTreeSet linkedSubtasks() {
+        if (subtasks == null) {
+            subtasks = new IntTreeSet();
+        }
+        return subtasks;
     }
 
     @Override
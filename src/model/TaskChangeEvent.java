@@ -0,0 +1,55 @@
+package model;
+
+public class TaskChangeEvent {
+    private final long sequence;
+    private final ChangeType changeType;
+    private final TaskType taskType;
+    private final Integer taskId;
+    private final Task before;
+    private final Task after;
+
+    public TaskChangeEvent(long sequence, ChangeType changeType, Task before, Task after) {
+        final Task subject = after != null ? after : before;
+        this.sequence = sequence;
+        this.changeType = changeType;
+        this.taskType = subject.getType();
+        this.taskId = subject.getId();
+        this.before = before;
+        this.after = after;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public Integer getTaskId() {
+        return taskId;
+    }
+
+    public Task getBefore() {
+        return before;
+    }
+
+    public Task getAfter() {
+        return after;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChangeEvent{" +
+                "sequence=" + sequence +
+                ", changeType=" + changeType +
+                ", taskType=" + taskType +
+                ", taskId=" + taskId +
+                '}';
+    }
+
+}
@@ -33,6 +33,10 @@ public class HttpTaskServer {
             httpServer.createContext("/epics", new EpictaskHandler(taskManager, gson));
             httpServer.createContext("/history", new HistoryHandler(taskManager, gson));
             httpServer.createContext("/prioritized", new PrioritizedHandler(taskManager, gson));
+            httpServer.createContext("/search", new SearchHandler(taskManager, gson));
+            httpServer.createContext("/slots", new SlotsHandler(taskManager, gson));
+            httpServer.createContext("/batch", new BatchHandler(taskManager, gson));
+            httpServer.createContext("/changes", new ChangesHandler(taskManager, gson));
         } catch (IOException e) {
             throw new RuntimeException("FAIL: Ошибка создания http-сервера на порте " + PORT + ".", e);
         }
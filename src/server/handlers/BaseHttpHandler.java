@@ -4,14 +4,25 @@ import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import model.Task;
+import model.TaskStatus;
+import service.Durability;
 import service.TaskManager;
+import service.TaskSnapshot;
 import util.NumChecker;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 public abstract class BaseHttpHandler implements HttpHandler {
     protected String contentFromRequestBody;
@@ -23,9 +34,19 @@ public abstract class BaseHttpHandler implements HttpHandler {
     protected static final int NOT_FOUND = 404;
     protected static final int METHOD_NOT_ALLOWED = 405;
     protected static final int NOT_ACCEPTABLE = 406;
+    protected static final int GONE = 410;
     protected static final int INTERNAL_SERVER_ERROR = 500;
     protected static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
     protected static final String DEFAULT_CONTENT_TYPE = "application/json;charset=utf-8";
+    protected static final String DURABILITY_HEADER = "X-Durability";
+    protected static final String DURABILITY_PARAM = "durability";
+    protected static final String AFTER_PARAM = "after";
+    protected static final String LIMIT_PARAM = "limit";
+    protected static final String STATUS_PARAM = "status";
+    protected static final String EPIC_PARAM = "epic";
+    protected static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    protected static final int DEFAULT_PAGE_LIMIT = 100;
+    protected static final int MAX_PAGE_LIMIT = 1000;
 
     public BaseHttpHandler(TaskManager taskManager, Gson gson) {
         this.taskManager = taskManager;
@@ -36,6 +57,88 @@ public abstract class BaseHttpHandler implements HttpHandler {
         return exchange.getRequestURI().getPath().split("/");
     }
 
+    protected Map<String, String> getQueryParams(HttpExchange exchange) {
+        final Map<String, String> params = new HashMap<>();
+        final String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isBlank()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            final int eqIndex = pair.indexOf('=');
+            final String key = eqIndex < 0 ? pair : pair.substring(0, eqIndex);
+            final String value = eqIndex < 0 ? "" : pair.substring(eqIndex + 1);
+            params.put(URLDecoder.decode(key, DEFAULT_CHARSET), URLDecoder.decode(value, DEFAULT_CHARSET));
+        }
+        return params;
+    }
+
+    protected Durability defineDurability(HttpExchange exchange) {
+        String value = exchange.getRequestHeaders().getFirst(DURABILITY_HEADER);
+        if (value == null) {
+            value = getQueryParams(exchange).get(DURABILITY_PARAM);
+        }
+        return value == null ? null : Durability.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    protected boolean isPageRequested(Map<String, String> params) {
+        return params.containsKey(AFTER_PARAM) || params.containsKey(LIMIT_PARAM);
+    }
+
+    protected Integer defineAfterId(Map<String, String> params) {
+        final String value = params.get(AFTER_PARAM);
+        return value == null || value.isBlank() ? null : Integer.parseInt(value.trim());
+    }
+
+    protected LocalDateTime defineAfterTime(Map<String, String> params) {
+        return defineTime(params, AFTER_PARAM);
+    }
+
+    protected LocalDateTime defineTime(Map<String, String> params, String name) {
+        final String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректное значение времени: " + value, e);
+        }
+    }
+
+    protected int defineLimit(Map<String, String> params) {
+        final String value = params.get(LIMIT_PARAM);
+        if (value == null || value.isBlank()) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        final int limit = Integer.parseInt(value.trim());
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным.");
+        }
+        return Math.min(limit, MAX_PAGE_LIMIT);
+    }
+
+    protected TaskStatus defineStatus(Map<String, String> params) {
+        final String value = params.get(STATUS_PARAM);
+        return value == null || value.isBlank() ? null : TaskStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    protected <T extends Task> void sendFound(HttpExchange exchange, Map<String, String> params, List<T> found) {
+        if (isPageRequested(params)) {
+            final int limit = defineLimit(params);
+            sendPage(exchange, TaskSnapshot.page(found, defineAfterId(params), limit), limit, Task::getId);
+        } else {
+            sendText(exchange, gson.toJson(found));
+        }
+    }
+
+    protected <T extends Task> void sendPage(HttpExchange exchange, List<T> page, int limit,
+                                             Function<T, Object> cursor) {
+        if (!page.isEmpty() && page.size() == limit) {
+            exchange.getResponseHeaders().add(NEXT_CURSOR_HEADER, String.valueOf(cursor.apply(page.getLast())));
+        }
+        sendText(exchange, gson.toJson(page));
+    }
+
     protected String defineEndpoint(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String[] pathParts = getPathParts(exchange);
@@ -107,6 +210,11 @@ public abstract class BaseHttpHandler implements HttpHandler {
         sendResponse(httpExchange, CREATED, null);
     }
 
+    protected void sendCreated(HttpExchange httpExchange, String text) {
+        httpExchange.getResponseHeaders().add("Content-Type", DEFAULT_CONTENT_TYPE);
+        sendResponse(httpExchange, CREATED, text.getBytes(DEFAULT_CHARSET));
+    }
+
     protected void sendNotFound(HttpExchange httpExchange) {
         sendResponse(httpExchange, NOT_FOUND, null);
     }
@@ -119,6 +227,10 @@ public abstract class BaseHttpHandler implements HttpHandler {
         sendResponse(httpExchange, METHOD_NOT_ALLOWED, null);
     }
 
+    protected void sendGone(HttpExchange httpExchange) {
+        sendResponse(httpExchange, GONE, null);
+    }
+
     protected void sendBadRequest(HttpExchange httpExchange) {
         sendResponse(httpExchange, BAD_REQUEST, null);
     }
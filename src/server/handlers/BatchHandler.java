@@ -0,0 +1,69 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import exceptions.InvalidReceivedTimeException;
+import exceptions.TaskNotFoundException;
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import service.Durability;
+import service.TaskManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchHandler extends BaseHttpHandler implements HttpHandler {
+
+    public BatchHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String requestMethod = exchange.getRequestMethod();
+
+        if (requestMethod.equals("POST")) {
+            try {
+                final Durability durability = defineDurability(exchange);
+                final JsonObject body = gson.fromJson(parseContentFromRequestBody(exchange), JsonObject.class);
+                if (body == null) {
+                    sendBadRequest(exchange);
+                    return;
+                }
+                final List<Task> batch = new ArrayList<>();
+                addAll(batch, body.getAsJsonArray("epics"), EpicTask.class);
+                addAll(batch, body.getAsJsonArray("tasks"), Task.class);
+                addAll(batch, body.getAsJsonArray("subtasks"), Subtask.class);
+                taskManager.runWithDurability(durability, () -> taskManager.applyBatch(batch));
+                sendCreated(exchange, gson.toJson(batch));
+            } catch (InvalidReceivedTimeException e) {
+                sendHasInteractions(exchange);
+            } catch (TaskNotFoundException e) {
+                sendNotFound(exchange);
+            } catch (IllegalArgumentException | IllegalStateException | JsonParseException e) {
+                sendBadRequest(exchange);
+            } catch (Exception e) {
+                sendInternalServerError(exchange);
+            }
+        } else {
+            sendMethodNotAllowed(exchange);
+        }
+    }
+
+    private <T extends Task> void addAll(List<Task> batch, JsonArray elements, Class<T> type) {
+        if (elements == null) {
+            return;
+        }
+        for (JsonElement element : elements) {
+            batch.add(gson.fromJson(element, type));
+        }
+    }
+
+}
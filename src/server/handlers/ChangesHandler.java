@@ -0,0 +1,45 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import exceptions.ChangeFeedTruncatedException;
+import model.TaskChangeEvent;
+import service.TaskManager;
+
+import java.util.List;
+import java.util.Map;
+
+public class ChangesHandler extends BaseHttpHandler implements HttpHandler {
+    private static final String SINCE_PARAM = "since";
+
+    public ChangesHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        String requestMethod = exchange.getRequestMethod();
+
+        if (requestMethod.equals("GET")) {
+            try {
+                final Map<String, String> params = getQueryParams(exchange);
+                final String since = params.get(SINCE_PARAM);
+                final long sequence = since == null || since.isBlank() ? 0 : Long.parseLong(since.trim());
+                final List<TaskChangeEvent> changes = taskManager.getChangesSince(sequence, defineLimit(params));
+                final long next = changes.isEmpty() ? sequence : changes.getLast().getSequence();
+                exchange.getResponseHeaders().add(NEXT_CURSOR_HEADER, String.valueOf(next));
+                sendText(exchange, gson.toJson(changes));
+            } catch (ChangeFeedTruncatedException e) {
+                sendGone(exchange);
+            } catch (IllegalArgumentException e) {
+                sendBadRequest(exchange);
+            } catch (Exception e) {
+                sendInternalServerError(exchange);
+            }
+        } else {
+            sendBadRequest(exchange);
+        }
+    }
+
+}
@@ -5,9 +5,12 @@ import com.sun.net.httpserver.HttpExchange;
 import exceptions.InvalidReceivedTimeException;
 import exceptions.TaskNotFoundException;
 import model.EpicTask;
+import model.TaskType;
+import service.Durability;
 import service.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class EpictaskHandler extends BaseHttpHandler {
 
@@ -18,6 +21,13 @@ public class EpictaskHandler extends BaseHttpHandler {
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String[] pathParts = getPathParts(exchange);
+        final Durability durability;
+        try {
+            durability = defineDurability(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange);
+            return;
+        }
         String endpoint = defineEndpoint(exchange);
 
         switch (endpoint) {
@@ -34,8 +44,19 @@ public class EpictaskHandler extends BaseHttpHandler {
 
             case "GET":
                 try {
-                    String allEpics = gson.toJson(taskManager.getAllEpicTasks());
-                    sendText(exchange, allEpics);
+                    final Map<String, String> params = getQueryParams(exchange);
+                    if (params.containsKey(STATUS_PARAM)) {
+                        sendFound(exchange, params, taskManager.findTasks(TaskType.EPIC, defineStatus(params), null));
+                    } else if (isPageRequested(params)) {
+                        final int limit = defineLimit(params);
+                        sendPage(exchange, taskManager.getEpicTasksPage(defineAfterId(params), limit), limit,
+                                EpicTask::getId);
+                    } else {
+                        String allEpics = gson.toJson(taskManager.getAllEpicTasks());
+                        sendText(exchange, allEpics);
+                    }
+                } catch (IllegalArgumentException e) {
+                    sendBadRequest(exchange);
                 } catch (Exception e) {
                     sendInternalServerError(exchange);
                 }
@@ -56,7 +77,7 @@ public class EpictaskHandler extends BaseHttpHandler {
             case "POST":
                 try {
                     EpicTask receivedEpic = gson.fromJson(contentFromRequestBody, EpicTask.class);
-                    taskManager.createEpicTask(receivedEpic);
+                    taskManager.runWithDurability(durability, () -> taskManager.createEpicTask(receivedEpic));
                     sendCreated(exchange);
                 } catch (InvalidReceivedTimeException e) {
                     sendHasInteractions(exchange);
@@ -68,7 +89,7 @@ public class EpictaskHandler extends BaseHttpHandler {
             case "DELETE_BY_ID":
                 try {
                     Integer id = Integer.parseInt(pathParts[2]);
-                    taskManager.deleteEpicTask(id);
+                    taskManager.runWithDurability(durability, () -> taskManager.deleteEpicTask(id));
                     sendOk(exchange);
                 } catch (TaskNotFoundException e) {
                     sendNotFound(exchange);
@@ -3,11 +3,16 @@ package server.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import model.Task;
 import service.TaskManager;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
+    private static final String FROM_PARAM = "from";
+    private static final String TO_PARAM = "to";
 
     public PrioritizedHandler(TaskManager taskManager, Gson gson) {
         super(taskManager, gson);
@@ -19,8 +24,21 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
 
         if (requestMethod.equals("GET")) {
             try {
-                String priorTasks = gson.toJson(taskManager.getPrioritizedTasks());
-                sendText(exchange, priorTasks);
+                final Map<String, String> params = getQueryParams(exchange);
+                if (params.containsKey(FROM_PARAM) || params.containsKey(TO_PARAM)) {
+                    final List<Task> window = taskManager.getPrioritizedTasks(defineTime(params, FROM_PARAM),
+                            defineTime(params, TO_PARAM));
+                    sendText(exchange, gson.toJson(window));
+                } else if (isPageRequested(params)) {
+                    final int limit = defineLimit(params);
+                    sendPage(exchange, taskManager.getPrioritizedTasksPage(defineAfterTime(params), limit), limit,
+                            Task::getStartTime);
+                } else {
+                    String priorTasks = gson.toJson(taskManager.getPrioritizedTasks());
+                    sendText(exchange, priorTasks);
+                }
+            } catch (IllegalArgumentException e) {
+                sendBadRequest(exchange);
             } catch (Exception e) {
                 sendInternalServerError(exchange);
             }
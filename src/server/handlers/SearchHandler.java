@@ -0,0 +1,40 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import service.TaskManager;
+
+import java.util.Map;
+
+public class SearchHandler extends BaseHttpHandler implements HttpHandler {
+    private static final String QUERY_PARAM = "q";
+
+    public SearchHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        String requestMethod = exchange.getRequestMethod();
+
+        if (requestMethod.equals("GET")) {
+            try {
+                final Map<String, String> params = getQueryParams(exchange);
+                final String query = params.get(QUERY_PARAM);
+                if (query == null || query.isBlank()) {
+                    sendBadRequest(exchange);
+                    return;
+                }
+                sendText(exchange, gson.toJson(taskManager.searchTasks(query, defineLimit(params))));
+            } catch (IllegalArgumentException e) {
+                sendBadRequest(exchange);
+            } catch (Exception e) {
+                sendInternalServerError(exchange);
+            }
+        } else {
+            sendBadRequest(exchange);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import service.TaskManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+public class SlotsHandler extends BaseHttpHandler implements HttpHandler {
+    private static final String FROM_PARAM = "from";
+    private static final String DURATION_PARAM = "duration";
+    private static final String COUNT_PARAM = "count";
+    private static final int DEFAULT_SLOT_COUNT = 5;
+
+    public SlotsHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        String requestMethod = exchange.getRequestMethod();
+
+        if (requestMethod.equals("GET")) {
+            try {
+                final Map<String, String> params = getQueryParams(exchange);
+                final LocalDateTime from = params.containsKey(FROM_PARAM)
+                        ? defineTime(params, FROM_PARAM)
+                        : LocalDateTime.now();
+                final String count = params.get(COUNT_PARAM);
+                final String slots = gson.toJson(taskManager.findFreeSlots(from, defineDuration(params),
+                        count == null ? DEFAULT_SLOT_COUNT : Math.min(Integer.parseInt(count.trim()), MAX_PAGE_LIMIT)));
+                sendText(exchange, slots);
+            } catch (IllegalArgumentException e) {
+                sendBadRequest(exchange);
+            } catch (Exception e) {
+                sendInternalServerError(exchange);
+            }
+        } else {
+            sendBadRequest(exchange);
+        }
+    }
+
+    private Duration defineDuration(Map<String, String> params) {
+        final String value = params.get(DURATION_PARAM);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Не указана длительность слота.");
+        }
+        try {
+            return Duration.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректная длительность слота: " + value, e);
+        }
+    }
+
+}
@@ -5,9 +5,12 @@ import com.sun.net.httpserver.HttpExchange;
 import exceptions.InvalidReceivedTimeException;
 import exceptions.TaskNotFoundException;
 import model.Subtask;
+import model.TaskType;
+import service.Durability;
 import service.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class SubtaskHandler extends BaseHttpHandler {
 
@@ -18,6 +21,13 @@ public class SubtaskHandler extends BaseHttpHandler {
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String[] pathParts = getPathParts(exchange);
+        final Durability durability;
+        try {
+            durability = defineDurability(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange);
+            return;
+        }
         String endpoint = defineEndpoint(exchange);
 
         switch (endpoint) {
@@ -34,7 +44,22 @@ public class SubtaskHandler extends BaseHttpHandler {
 
             case "GET":
                 try {
-                    sendText(exchange, gson.toJson(taskManager.getAllSubtasks()));
+                    final Map<String, String> params = getQueryParams(exchange);
+                    if (params.containsKey(STATUS_PARAM) || params.containsKey(EPIC_PARAM)) {
+                        final Integer epicId = params.containsKey(EPIC_PARAM)
+                                ? Integer.valueOf(params.get(EPIC_PARAM).trim())
+                                : null;
+                        sendFound(exchange, params,
+                                taskManager.findTasks(TaskType.SUBTASK, defineStatus(params), epicId));
+                    } else if (isPageRequested(params)) {
+                        final int limit = defineLimit(params);
+                        sendPage(exchange, taskManager.getSubtasksPage(defineAfterId(params), limit), limit,
+                                Subtask::getId);
+                    } else {
+                        sendText(exchange, gson.toJson(taskManager.getAllSubtasks()));
+                    }
+                } catch (IllegalArgumentException e) {
+                    sendBadRequest(exchange);
                 } catch (Exception e) {
                     sendInternalServerError(exchange);
                 }
@@ -43,7 +68,7 @@ public class SubtaskHandler extends BaseHttpHandler {
             case "POST_BY_ID":
                 try {
                     Subtask receivedSubtask = gson.fromJson(contentFromRequestBody, Subtask.class);
-                    taskManager.updateSubtask(receivedSubtask);
+                    taskManager.runWithDurability(durability, () -> taskManager.updateSubtask(receivedSubtask));
                     sendOk(exchange);
                 } catch (InvalidReceivedTimeException e) {
                     sendHasInteractions(exchange);
@@ -55,7 +80,7 @@ public class SubtaskHandler extends BaseHttpHandler {
             case "POST":
                 try {
                     Subtask receivedSubtask = gson.fromJson(contentFromRequestBody, Subtask.class);
-                    taskManager.createSubtask(receivedSubtask);
+                    taskManager.runWithDurability(durability, () -> taskManager.createSubtask(receivedSubtask));
                     sendCreated(exchange);
                 } catch (InvalidReceivedTimeException e) {
                     sendHasInteractions(exchange);
@@ -67,7 +92,7 @@ public class SubtaskHandler extends BaseHttpHandler {
             case "DELETE_BY_ID":
                 try {
                     Integer id = Integer.parseInt(pathParts[2]);
-                    taskManager.deleteSubtask(id);
+                    taskManager.runWithDurability(durability, () -> taskManager.deleteSubtask(id));
                     sendOk(exchange);
                 } catch (TaskNotFoundException e) {
                     sendNotFound(exchange);
@@ -5,9 +5,12 @@ import com.sun.net.httpserver.HttpExchange;
 import exceptions.InvalidReceivedTimeException;
 import exceptions.TaskNotFoundException;
 import model.Task;
+import model.TaskType;
+import service.Durability;
 import service.TaskManager;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class TaskHandler extends BaseHttpHandler {
 
@@ -18,6 +21,13 @@ public class TaskHandler extends BaseHttpHandler {
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String[] pathParts = getPathParts(exchange);
+        final Durability durability;
+        try {
+            durability = defineDurability(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange);
+            return;
+        }
         String endpoint = defineEndpoint(exchange);
 
         switch (endpoint) {
@@ -34,7 +44,17 @@ public class TaskHandler extends BaseHttpHandler {
 
             case "GET":
                 try {
-                    sendText(exchange, gson.toJson(taskManager.getAllTasks()));
+                    final Map<String, String> params = getQueryParams(exchange);
+                    if (params.containsKey(STATUS_PARAM)) {
+                        sendFound(exchange, params, taskManager.findTasks(TaskType.TASK, defineStatus(params), null));
+                    } else if (isPageRequested(params)) {
+                        final int limit = defineLimit(params);
+                        sendPage(exchange, taskManager.getTasksPage(defineAfterId(params), limit), limit, Task::getId);
+                    } else {
+                        sendText(exchange, gson.toJson(taskManager.getAllTasks()));
+                    }
+                } catch (IllegalArgumentException e) {
+                    sendBadRequest(exchange);
                 } catch (Exception e) {
                     sendInternalServerError(exchange);
                 }
@@ -43,7 +63,7 @@ public class TaskHandler extends BaseHttpHandler {
             case "POST_BY_ID":
                 try {
                     Task receivedTask = gson.fromJson(contentFromRequestBody, Task.class);
-                    taskManager.updateTask(receivedTask);
+                    taskManager.runWithDurability(durability, () -> taskManager.updateTask(receivedTask));
                     sendOk(exchange);
                 } catch (InvalidReceivedTimeException e) {
                     sendHasInteractions(exchange);
@@ -55,7 +75,7 @@ public class TaskHandler extends BaseHttpHandler {
             case "POST":
                 try {
                     Task receivedTask = gson.fromJson(contentFromRequestBody, Task.class);
-                    taskManager.createTask(receivedTask);
+                    taskManager.runWithDurability(durability, () -> taskManager.createTask(receivedTask));
                     sendCreated(exchange);
                 } catch (InvalidReceivedTimeException e) {
                     sendHasInteractions(exchange);
@@ -67,7 +87,7 @@ public class TaskHandler extends BaseHttpHandler {
             case "DELETE_BY_ID":
                 try {
                     Integer id = Integer.parseInt(pathParts[2]);
-                    taskManager.deleteTask(id);
+                    taskManager.runWithDurability(durability, () -> taskManager.deleteTask(id));
                     sendOk(exchange);
                 } catch (TaskNotFoundException e) {
                     sendNotFound(exchange);
@@ -0,0 +1,172 @@
+package service;
+
+import exceptions.ChangeFeedTruncatedException;
+import model.ChangeType;
+import model.Task;
+import model.TaskChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class ChangeFeed {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int DELIVERY_BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicReferenceArray<TaskChangeEvent> ring;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile Thread dispatcher;
+    private volatile boolean dispatcherIdle;
+
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChangeFeed(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Некорректная емкость ленты изменений: " + capacity);
+        }
+        final int size = Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+        ring = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    public int getCapacity() {
+        return ring.length();
+    }
+
+    public long getLastSequence() {
+        return sequence.get();
+    }
+
+    public long publish(ChangeType changeType, Task before, Task after) {
+        final long next = sequence.incrementAndGet();
+        ring.set((int) (next & mask), new TaskChangeEvent(next, changeType, before, after));
+        if (dispatcherIdle) {
+            LockSupport.unpark(dispatcher);
+        }
+        return next;
+    }
+
+    public List<TaskChangeEvent> readSince(long afterSequence, int limit) {
+        if (afterSequence < 0) {
+            throw new IllegalArgumentException("Номер изменения не может быть отрицательным.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным.");
+        }
+        final long last = sequence.get();
+        final List<TaskChangeEvent> events = new ArrayList<>();
+        for (long next = afterSequence + 1; next <= last && events.size() < limit; next++) {
+            final TaskChangeEvent event = ring.get((int) (next & mask));
+            if (event == null || event.getSequence() < next) {
+                if (last - next >= ring.length()) {
+                    throw truncated(afterSequence);
+                }
+                break;
+            }
+            if (event.getSequence() > next) {
+                throw truncated(afterSequence);
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private ChangeFeedTruncatedException truncated(long afterSequence) {
+        return new ChangeFeedTruncatedException("Изменения после номера " + afterSequence
+                + " уже вытеснены из ленты, требуется полная синхронизация.");
+    }
+
+    public synchronized void subscribe(TaskChangeListener listener, long fromSequence) {
+        if (fromSequence < 0) {
+            throw new IllegalArgumentException("Номер изменения не может быть отрицательным.");
+        }
+        subscriptions.add(new Subscription(listener, fromSequence));
+        if (dispatcher == null) {
+            dispatcher = new Thread(this::dispatchLoop, "task-change-feed");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    public void unsubscribe(TaskChangeListener listener) {
+        subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            synchronized (this) {
+                if (subscriptions.isEmpty()) {
+                    dispatcher = null;
+                    return;
+                }
+            }
+            boolean delivered = false;
+            for (Subscription subscription : subscriptions) {
+                delivered |= subscription.deliver();
+            }
+            if (!delivered) {
+                dispatcherIdle = true;
+                if (!hasPendingEvents()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                dispatcherIdle = false;
+            }
+        }
+    }
+
+    private boolean hasPendingEvents() {
+        final long last = sequence.get();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.cursor < last) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class Subscription {
+        private final TaskChangeListener listener;
+        private long cursor;
+
+        Subscription(TaskChangeListener listener, long cursor) {
+            this.listener = listener;
+            this.cursor = cursor;
+        }
+
+        boolean deliver() {
+            final List<TaskChangeEvent> events;
+            try {
+                events = readSince(cursor, DELIVERY_BATCH_SIZE);
+            } catch (ChangeFeedTruncatedException e) {
+                final long resumeFrom = sequence.get() - ring.length() / 2;
+                try {
+                    listener.onEventsLost(cursor + 1, resumeFrom);
+                } catch (RuntimeException failure) {
+                    System.out.println("FAIL: Ошибка обработки потери изменений: " + failure.getMessage());
+                }
+                cursor = resumeFrom;
+                return true;
+            }
+            for (TaskChangeEvent event : events) {
+                try {
+                    listener.onChange(event);
+                } catch (RuntimeException e) {
+                    System.out.println("FAIL: Ошибка обработки изменения " + event.getSequence() + ": "
+                            + e.getMessage());
+                }
+                cursor = event.getSequence();
+            }
+            return !events.isEmpty();
+        }
+    }
+
+}
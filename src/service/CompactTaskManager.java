@@ -0,0 +1,682 @@
+package service;
+
+import exceptions.InvalidReceivedTimeException;
+import exceptions.TaskNotFoundException;
+import model.ChangeType;
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskChangeEvent;
+import model.TaskStatus;
+import model.TaskType;
+import model.TimeSlot;
+import util.IntOrderedSet;
+import util.SortedLongIntMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+class CompactTaskManager implements TaskManager {
+    private Integer taskId = 0;
+    private final CompactTaskStore store;
+    private final SortedLongIntMap[] idsByType = new SortedLongIntMap[TaskType.values().length];
+    private final SortedLongIntMap scheduledIdsByStart = new SortedLongIntMap();
+    private final HistoryManager history = Managers.getDefaultHistory();
+    private final ChangeFeed changeFeed = new ChangeFeed();
+    private List<Task> tasks;
+    private List<EpicTask> epics;
+    private List<Subtask> subtasks;
+    private List<Task> prioritizedTasks;
+
+    CompactTaskManager() {
+        this(0);
+    }
+
+    CompactTaskManager(int expectedSize) {
+        store = new CompactTaskStore(expectedSize);
+        for (int i = 0; i < idsByType.length; i++) {
+            idsByType[i] = new SortedLongIntMap();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return history.getHistory();
+    }
+
+    @Override
+    public Integer getId() {
+        return taskId;
+    }
+
+    @Override
+    public Integer generateId() {
+        return ++taskId;
+    }
+
+    @Override
+    public void createTask(Task task) {
+        if (isTimeIntervalBooked(task)) {
+            throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+        }
+        assignId(task);
+        putTask(task);
+        publishChange(ChangeType.CREATED, null, store.get(task.getId()));
+    }
+
+    @Override
+    public void createSubtask(Subtask subtask) {
+        if (subtask.getEpicId() == null || store.getType(subtask.getEpicId()) != TaskType.EPIC) {
+            throw new TaskNotFoundException("Задача (EpicTask, id: " + subtask.getEpicId() + ") не найдена.");
+        }
+        if (isTimeIntervalBooked(subtask)) {
+            throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+        }
+        assignId(subtask);
+        putTask(subtask);
+        updateEpicAttributes(subtask.getEpicId());
+        publishChange(ChangeType.CREATED, null, store.get(subtask.getId()));
+    }
+
+    @Override
+    public void createEpicTask(EpicTask epictask) {
+        assignId(epictask);
+        rollUp(epictask);
+        putTask(epictask);
+        publishChange(ChangeType.CREATED, null, store.get(epictask.getId()));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        if (tasks == null) {
+            tasks = materializeAll(TaskType.TASK);
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<EpicTask> getAllEpicTasks() {
+        if (epics == null) {
+            epics = materializeAll(TaskType.EPIC);
+        }
+        return epics;
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        if (subtasks == null) {
+            subtasks = materializeAll(TaskType.SUBTASK);
+        }
+        return subtasks;
+    }
+
+    @Override
+    public Task getTask(int id) {
+        return getStoredTask(TaskType.TASK, id, "Task");
+    }
+
+    @Override
+    public EpicTask getEpicTask(int id) {
+        return (EpicTask) getStoredTask(TaskType.EPIC, id, "EpicTask");
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return (Subtask) getStoredTask(TaskType.SUBTASK, id, "Subtask");
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        removeAll(TaskType.TASK);
+    }
+
+    @Override
+    public void deleteAllEpicTasks() {
+        removeAll(TaskType.SUBTASK);
+        removeAll(TaskType.EPIC);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        removeAll(TaskType.SUBTASK);
+        for (SortedLongIntMap.Cursor cursor = idsByType[TaskType.EPIC.ordinal()].cursorFirst(); cursor.isValid();
+             cursor.next()) {
+            updateEpicAttributes((int) cursor.key());
+        }
+    }
+
+    @Override
+    public void deleteTask(int id) {
+        requireStored(TaskType.TASK, id, "Task");
+        publishChange(ChangeType.DELETED, removeStored(id), null);
+    }
+
+    @Override
+    public void deleteEpicTask(int id) {
+        requireStored(TaskType.EPIC, id, "EpicTask");
+        final Task epic = store.get(id);
+        for (int subtaskId : store.getSubtaskIds(id)) {
+            publishChange(ChangeType.DELETED, removeStored(subtaskId), null);
+        }
+        removeStored(id);
+        publishChange(ChangeType.DELETED, epic, null);
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        requireStored(TaskType.SUBTASK, id, "Subtask");
+        final Subtask subtask = (Subtask) removeStored(id);
+        updateEpicAttributes(subtask.getEpicId());
+        publishChange(ChangeType.DELETED, subtask, null);
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasksOfEpic(int id) {
+        requireStored(TaskType.EPIC, id, "EpicTask");
+        final ArrayList<Subtask> found = new ArrayList<>();
+        for (int subtaskId : store.getSubtaskIds(id)) {
+            found.add((Subtask) store.get(subtaskId));
+        }
+        return found;
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        if (isTimeIntervalBooked(task)) {
+            throw new InvalidReceivedTimeException("Данное время занято.");
+        }
+        if (task.getId() != null && store.getType(task.getId()) == TaskType.TASK) {
+            final Task old = putTask(task);
+            publishChange(ChangeType.UPDATED, old, store.get(task.getId()));
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        if (isTimeIntervalBooked(subtask)) {
+            throw new InvalidReceivedTimeException("Данное время занято.");
+        }
+        if (subtask.getId() != null && store.getType(subtask.getId()) == TaskType.SUBTASK) {
+            if (subtask.getEpicId() == null || store.getType(subtask.getEpicId()) != TaskType.EPIC) {
+                throw new TaskNotFoundException("Задача (EpicTask, id: " + subtask.getEpicId() + ") не найдена.");
+            }
+            final Subtask old = (Subtask) putTask(subtask);
+            if (!old.getEpicId().equals(subtask.getEpicId())) {
+                updateEpicAttributes(old.getEpicId());
+            }
+            updateEpicAttributes(subtask.getEpicId());
+            publishChange(ChangeType.UPDATED, old, store.get(subtask.getId()));
+        }
+    }
+
+    @Override
+    public void updateEpicTask(EpicTask newEpictask) {
+        if (newEpictask.getId() != null && store.getType(newEpictask.getId()) == TaskType.EPIC) {
+            renameEpic(newEpictask);
+        }
+    }
+
+    @Override
+    public void updateEpicTaskStatus(Integer id) {
+        if (id != null && store.getType(id) == TaskType.EPIC) {
+            updateEpicAttributes(id);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        if (prioritizedTasks == null) {
+            final List<Task> scheduled = new ArrayList<>(scheduledIdsByStart.size());
+            for (SortedLongIntMap.Cursor cursor = scheduledIdsByStart.cursorFirst(); cursor.isValid(); cursor.next()) {
+                scheduled.add(store.get(cursor.value()));
+            }
+            prioritizedTasks = Collections.unmodifiableList(scheduled);
+        }
+        return prioritizedTasks;
+    }
+
+    @Override
+    public List<Task> getTasksPage(Integer afterId, int limit) {
+        return page(TaskType.TASK, afterId, limit);
+    }
+
+    @Override
+    public List<EpicTask> getEpicTasksPage(Integer afterId, int limit) {
+        return page(TaskType.EPIC, afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(Integer afterId, int limit) {
+        return page(TaskType.SUBTASK, afterId, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(LocalDateTime after, int limit) {
+        checkLimit(limit);
+        final List<Task> found = new ArrayList<>();
+        final SortedLongIntMap.Cursor cursor = after == null
+                ? scheduledIdsByStart.cursorFirst()
+                : scheduledIdsByStart.cursorFrom(after.toEpochSecond(ZoneOffset.UTC), false);
+        for (; cursor.isValid() && found.size() < limit; cursor.next()) {
+            found.add(store.get(cursor.value()));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало интервала должно быть раньше его конца.");
+        }
+        final List<Task> found = new ArrayList<>();
+        if (from != null) {
+            final SortedLongIntMap.Cursor before = scheduledIdsByStart.cursorBefore(ceilSecond(from));
+            if (before.isValid() && getScheduledEnd(before.value()).isAfter(from)) {
+                found.add(store.get(before.value()));
+            }
+        }
+        final SortedLongIntMap.Cursor cursor = from == null
+                ? scheduledIdsByStart.cursorFirst()
+                : scheduledIdsByStart.cursorFrom(ceilSecond(from), true);
+        for (; cursor.isValid(); cursor.next()) {
+            if (to != null && !toTime(cursor.key()).isBefore(to)) {
+                break;
+            }
+            found.add(store.get(cursor.value()));
+        }
+        return found;
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(LocalDateTime earliest, Duration duration, int count) {
+        if (earliest == null || duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Для поиска слотов нужны начало и положительная длительность.");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("Количество слотов должно быть положительным.");
+        }
+        final List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime cursor = earliest;
+        final SortedLongIntMap.Cursor before = scheduledIdsByStart.cursorBefore(ceilSecond(earliest));
+        if (before.isValid() && getScheduledEnd(before.value()).isAfter(cursor)) {
+            cursor = getScheduledEnd(before.value());
+        }
+        final SortedLongIntMap.Cursor scheduled = scheduledIdsByStart.cursorFrom(ceilSecond(earliest), true);
+        while (slots.size() < count) {
+            final int next = scheduled.isValid() ? scheduled.value() : -1;
+            final LocalDateTime gapEnd = next < 0 ? LocalDateTime.MAX : toTime(scheduled.key());
+            while (slots.size() < count && !cursor.plus(duration).isAfter(gapEnd)) {
+                final LocalDateTime slotEnd = cursor.plus(duration);
+                slots.add(new TimeSlot(cursor, slotEnd));
+                cursor = slotEnd;
+            }
+            if (next >= 0) {
+                if (getScheduledEnd(next).isAfter(cursor)) {
+                    cursor = getScheduledEnd(next);
+                }
+                scheduled.next();
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public List<Task> findTasks(TaskType type, TaskStatus status, Integer epicId) {
+        final List<Task> found = new ArrayList<>();
+        if (epicId != null) {
+            if ((type == null || type == TaskType.SUBTASK) && store.getType(epicId) == TaskType.EPIC) {
+                for (int id : store.getSubtaskIds(epicId)) {
+                    if (status == null || store.getStatus(id) == status) {
+                        found.add(store.get(id));
+                    }
+                }
+            }
+        } else {
+            final TaskType[] types = type == null ? TaskType.values() : new TaskType[]{type};
+            for (TaskType scannedType : types) {
+                for (SortedLongIntMap.Cursor cursor = idsByType[scannedType.ordinal()].cursorFirst(); cursor.isValid();
+                     cursor.next()) {
+                    final int id = (int) cursor.key();
+                    if (status == null || store.getStatus(id) == status) {
+                        found.add(store.get(id));
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparing(Task::getId));
+        return found;
+    }
+
+    @Override
+    public List<Task> searchTasks(String query, int limit) {
+        checkLimit(limit);
+        final String[] terms = SearchIndex.tokenize(query).toArray(new String[0]);
+        if (terms.length == 0) {
+            return new ArrayList<>();
+        }
+        final PriorityQueue<SearchIndex.Match> top = new PriorityQueue<>(SearchIndex.BY_RELEVANCE.reversed());
+        for (TaskType type : TaskType.values()) {
+            for (SortedLongIntMap.Cursor cursor = idsByType[type.ordinal()].cursorFirst(); cursor.isValid();
+                 cursor.next()) {
+                final int id = (int) cursor.key();
+                final int score = SearchIndex.score(terms, store.getTitle(id), store.getDescription(id));
+                if (score > 0) {
+                    top.add(new SearchIndex.Match(type, id, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        }
+        final List<SearchIndex.Match> matches = new ArrayList<>(top);
+        matches.sort(SearchIndex.BY_RELEVANCE);
+        final List<Task> found = new ArrayList<>();
+        for (SearchIndex.Match match : matches) {
+            found.add(store.get(match.getId()));
+        }
+        return found;
+    }
+
+    @Override
+    public void applyBatch(List<Task> batch) {
+        validateBatch(batch);
+        final IntOrderedSet touchedEpics = new IntOrderedSet();
+        for (Task task : batch) {
+            if (task.getType() == TaskType.EPIC) {
+                if (task.getId() != null && store.getType(task.getId()) == TaskType.EPIC) {
+                    renameEpic((EpicTask) task);
+                } else {
+                    assignId(task);
+                    rollUp((EpicTask) task);
+                    putTask(task);
+                    publishChange(ChangeType.CREATED, null, store.get(task.getId()));
+                }
+            }
+        }
+        for (Task task : batch) {
+            if (task.getType() == TaskType.EPIC) {
+                continue;
+            }
+            assignId(task);
+            final Task old = putTask(task);
+            if (task instanceof Subtask subtask) {
+                if (old != null) {
+                    touchedEpics.add(((Subtask) old).getEpicId());
+                }
+                touchedEpics.add(subtask.getEpicId());
+            }
+            publishChange(old == null ? ChangeType.CREATED : ChangeType.UPDATED, old, store.get(task.getId()));
+        }
+        touchedEpics.forEachInt(this::updateEpicAttributes);
+    }
+
+    @Override
+    public long getLastChangeSequence() {
+        return changeFeed.getLastSequence();
+    }
+
+    @Override
+    public List<TaskChangeEvent> getChangesSince(long sequence, int limit) {
+        return changeFeed.readSince(sequence, limit);
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener, long fromSequence) {
+        changeFeed.subscribe(listener, fromSequence);
+    }
+
+    @Override
+    public void removeChangeListener(TaskChangeListener listener) {
+        changeFeed.unsubscribe(listener);
+    }
+
+    private void validateBatch(List<Task> batch) {
+        if (batch == null || batch.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Пакет не должен содержать пустых задач.");
+        }
+        final IntOrderedSet batchIds = new IntOrderedSet();
+        final IntOrderedSet batchEpicIds = new IntOrderedSet();
+        final List<Task> timedTasks = new ArrayList<>();
+        for (Task task : batch) {
+            final Integer id = task.getId();
+            if (id != null) {
+                if (!batchIds.add(id)) {
+                    throw new IllegalArgumentException("Задача с id " + id + " встречается в пакете повторно.");
+                }
+                final TaskType storedType = store.getType(id);
+                if (storedType != null && storedType != task.getType()) {
+                    throw new IllegalArgumentException("Задача с id " + id + " уже существует с другим типом.");
+                }
+                if (task.getType() == TaskType.EPIC) {
+                    batchEpicIds.add(id);
+                }
+            }
+            if (task.getType() != TaskType.EPIC && task.getStartTime() != null) {
+                timedTasks.add(task);
+            }
+        }
+        for (Task task : batch) {
+            if (task.getType() == TaskType.SUBTASK) {
+                final Integer epicId = ((Subtask) task).getEpicId();
+                if (epicId == null || store.getType(epicId) != TaskType.EPIC && !batchEpicIds.contains(epicId)) {
+                    throw new TaskNotFoundException("Задача (EpicTask, id: " + epicId + ") не найдена.");
+                }
+            }
+        }
+
+        timedTasks.sort(Comparator.comparing(Task::getStartTime));
+        LocalDateTime latestEnd = null;
+        for (Task task : timedTasks) {
+            if (latestEnd != null && latestEnd.isAfter(task.getStartTime()) || isTimeIntervalBooked(task)) {
+                throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+            }
+            final LocalDateTime end = task.getEndTime() == null ? task.getStartTime() : task.getEndTime();
+            if (latestEnd == null || end.isAfter(latestEnd)) {
+                latestEnd = end;
+            }
+        }
+    }
+
+    private void assignId(Task task) {
+        if (task.getId() == null) {
+            task.setId(generateId());
+        }
+    }
+
+    private Task putTask(Task task) {
+        final int id = task.getId();
+        final TaskType storedType = store.getType(id);
+        if (storedType != null && storedType != task.getType()) {
+            throw new IllegalArgumentException("Задача с id " + id + " уже существует с другим типом.");
+        }
+        final Task old = storedType == null ? null : store.get(id);
+        store.put(task);
+        idsByType[task.getType().ordinal()].put(id, id);
+        if (old != null) {
+            unschedule(old);
+        }
+        if (task.getType() != TaskType.EPIC && task.getStartTime() != null) {
+            scheduledIdsByStart.put(task.getStartTime().toEpochSecond(ZoneOffset.UTC), id);
+        }
+        invalidateLists();
+        return old;
+    }
+
+    private Task removeStored(int id) {
+        final Task removed = store.get(id);
+        store.remove(id);
+        idsByType[removed.getType().ordinal()].remove(id);
+        unschedule(removed);
+        history.remove(id);
+        invalidateLists();
+        return removed;
+    }
+
+    private void removeAll(TaskType type) {
+        final SortedLongIntMap ids = idsByType[type.ordinal()];
+        for (SortedLongIntMap.Cursor cursor = ids.cursorFirst(); cursor.isValid(); cursor.next()) {
+            final int id = (int) cursor.key();
+            final Task removed = store.get(id);
+            store.remove(id);
+            unschedule(removed);
+            history.remove(id);
+            publishChange(ChangeType.DELETED, removed, null);
+        }
+        ids.clear();
+        invalidateLists();
+    }
+
+    private void unschedule(Task task) {
+        if (task.getStartTime() == null) {
+            return;
+        }
+        final long start = task.getStartTime().toEpochSecond(ZoneOffset.UTC);
+        if (scheduledIdsByStart.getOrDefault(start, -1) == task.getId()) {
+            scheduledIdsByStart.remove(start);
+        }
+    }
+
+    private void renameEpic(EpicTask epic) {
+        final Task old = store.get(epic.getId());
+        final Task renamed = store.get(epic.getId());
+        renamed.setTitle(epic.getTitle());
+        renamed.setDescription(epic.getDescription());
+        putTask(renamed);
+        publishChange(ChangeType.UPDATED, old, store.get(epic.getId()));
+    }
+
+    private void updateEpicAttributes(int id) {
+        final EpicTask epic = (EpicTask) store.get(id);
+        rollUp(epic);
+        store.put(epic);
+        invalidateLists();
+    }
+
+    private void rollUp(EpicTask epic) {
+        final int[] subtaskIds = store.getSubtaskIds(epic.getId());
+        int newCount = 0;
+        int doneCount = 0;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (int id : subtaskIds) {
+            final TaskStatus status = store.getStatus(id);
+            if (status == TaskStatus.NEW) {
+                newCount++;
+            } else if (status == TaskStatus.DONE) {
+                doneCount++;
+            }
+            final LocalDateTime subtaskStart = store.getStartTime(id);
+            if (subtaskStart != null) {
+                final LocalDateTime subtaskEnd = getScheduledEnd(id);
+                if (start == null || subtaskStart.isBefore(start)) {
+                    start = subtaskStart;
+                }
+                if (end == null || subtaskEnd.isAfter(end)) {
+                    end = subtaskEnd;
+                }
+            }
+        }
+        if (newCount == subtaskIds.length) {
+            epic.setStatus(TaskStatus.NEW);
+        } else if (doneCount == subtaskIds.length) {
+            epic.setStatus(TaskStatus.DONE);
+        } else {
+            epic.setStatus(TaskStatus.IN_PROGRESS);
+        }
+        epic.setStartTime(start);
+        epic.setEndTime(end);
+        epic.setDuration(start == null ? null : Duration.between(start, end));
+    }
+
+    private boolean isTimeIntervalBooked(Task task) {
+        final LocalDateTime start = task.getStartTime();
+        final LocalDateTime end = task.getEndTime();
+        if (start == null || end == null) {
+            return false;
+        }
+        final SortedLongIntMap.Cursor candidate = scheduledIdsByStart.cursorBefore(ceilSecond(end));
+        while (candidate.isValid() && isSameSlot(candidate.value(), task)) {
+            candidate.previous();
+        }
+        return candidate.isValid() && getScheduledEnd(candidate.value()).isAfter(start);
+    }
+
+    private boolean isSameSlot(int scheduledId, Task task) {
+        return task.getId() != null && task.getId() == scheduledId
+                && store.getStartTime(scheduledId).equals(task.getStartTime())
+                && getScheduledEnd(scheduledId).equals(task.getEndTime());
+    }
+
+    private LocalDateTime getScheduledEnd(int id) {
+        final LocalDateTime end = store.getEndTime(id);
+        return end == null ? store.getStartTime(id) : end;
+    }
+
+    private Task getStoredTask(TaskType type, int id, String typeName) {
+        requireStored(type, id, typeName);
+        final Task task = store.get(id);
+        history.add(task);
+        return task;
+    }
+
+    private void requireStored(TaskType type, int id, String typeName) {
+        if (store.getType(id) != type) {
+            throw new TaskNotFoundException("Задача (" + typeName + ", id: " + id + ") не найдена.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Task> List<T> materializeAll(TaskType type) {
+        final SortedLongIntMap ids = idsByType[type.ordinal()];
+        final List<T> found = new ArrayList<>(ids.size());
+        for (SortedLongIntMap.Cursor cursor = ids.cursorFirst(); cursor.isValid(); cursor.next()) {
+            found.add((T) store.get((int) cursor.key()));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Task> List<T> page(TaskType type, Integer afterId, int limit) {
+        checkLimit(limit);
+        final SortedLongIntMap ids = idsByType[type.ordinal()];
+        final List<T> found = new ArrayList<>();
+        final SortedLongIntMap.Cursor cursor = afterId == null ? ids.cursorFirst() : ids.cursorFrom(afterId, false);
+        for (; cursor.isValid() && found.size() < limit; cursor.next()) {
+            found.add((T) store.get((int) cursor.key()));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    private void invalidateLists() {
+        tasks = null;
+        epics = null;
+        subtasks = null;
+        prioritizedTasks = null;
+    }
+
+    private void publishChange(ChangeType changeType, Task before, Task after) {
+        changeFeed.publish(changeType, before, after);
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным.");
+        }
+    }
+
+    private static long ceilSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() == 0 ? 0 : 1);
+    }
+
+    private static LocalDateTime toTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+}
@@ -0,0 +1,543 @@
+package service;
+
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+import util.IntObjectHashMap;
+import util.IntOrderedSet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompactTaskStore {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final byte NO_STATUS = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_DURATION = -1;
+    private static final int NO_STRING = -1;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private int[] ids;
+    private byte[] types;
+    private byte[] statuses;
+    private long[] startSeconds;
+    private int[] durationSeconds;
+    private int[] epicIds;
+    private int[] titleRefs;
+    private int[] descriptionRefs;
+    private int size;
+
+    private int[] rowsById;
+    private int mask;
+
+    private final StringTable strings = new StringTable();
+    private final IntObjectHashMap<IntOrderedSet> subtasksByEpic = new IntObjectHashMap<>();
+    private final IntObjectHashMap<LocalDateTime> epicEndTimes = new IntObjectHashMap<>();
+
+    public CompactTaskStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CompactTaskStore(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Ожидаемый размер хранилища не может быть отрицательным.");
+        }
+        final int rows = Math.max(expectedSize, DEFAULT_CAPACITY);
+        ids = new int[rows];
+        types = new byte[rows];
+        statuses = new byte[rows];
+        startSeconds = new long[rows];
+        durationSeconds = new int[rows];
+        epicIds = new int[rows];
+        titleRefs = new int[rows];
+        descriptionRefs = new int[rows];
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 2 < rows * 3) {
+            capacity <<= 1;
+        }
+        rowsById = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return rowsById[findSlot(id)] != 0;
+    }
+
+    public void put(Task task) {
+        validate(task);
+        final int id = task.getId();
+        final int slot = findSlot(id);
+        int row = rowsById[slot] - 1;
+        if (row < 0) {
+            if (size == ids.length) {
+                growRows();
+            }
+            row = size++;
+            ids[row] = id;
+            titleRefs[row] = NO_STRING;
+            descriptionRefs[row] = NO_STRING;
+            rowsById[slot] = row + 1;
+            if (size * 3 > rowsById.length * 2) {
+                resizeIndex(rowsById.length * 2);
+            }
+        } else if (types[row] == TaskType.SUBTASK.ordinal()) {
+            unlinkSubtask(epicIds[row], id);
+        } else if (types[row] == TaskType.EPIC.ordinal()) {
+            epicEndTimes.remove(id);
+        }
+        writeRow(row, task);
+    }
+
+    public Task get(int id) {
+        final int row = rowOf(id);
+        return row < 0 ? null : materialize(row);
+    }
+
+    public TaskType getType(int id) {
+        final int row = rowOf(id);
+        return row < 0 ? null : TYPES[types[row]];
+    }
+
+    public boolean remove(int id) {
+        final int slot = findSlot(id);
+        final int row = rowsById[slot] - 1;
+        if (row < 0) {
+            return false;
+        }
+        if (types[row] == TaskType.SUBTASK.ordinal()) {
+            unlinkSubtask(epicIds[row], id);
+        } else if (types[row] == TaskType.EPIC.ordinal()) {
+            epicEndTimes.remove(id);
+        }
+        strings.release(titleRefs[row]);
+        strings.release(descriptionRefs[row]);
+        deleteSlot(slot);
+        final int last = --size;
+        if (row != last) {
+            moveRow(last, row);
+            rowsById[findSlot(ids[row])] = row + 1;
+        }
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(rowsById, 0);
+        strings.clear();
+        subtasksByEpic.clear();
+        epicEndTimes.clear();
+    }
+
+    public List<Task> getAll(TaskType type) {
+        final List<Task> tasks = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (types[row] == type.ordinal()) {
+                tasks.add(materialize(row));
+            }
+        }
+        return tasks;
+    }
+
+    public int[] getSubtaskIds(int epicId) {
+        final IntOrderedSet subtasks = subtasksByEpic.get(epicId);
+        return subtasks == null ? new int[0] : subtasks.toIntArray();
+    }
+
+    public TaskStatus getStatus(int id) {
+        final int row = rowOf(id);
+        return row < 0 || statuses[row] == NO_STATUS ? null : STATUSES[statuses[row]];
+    }
+
+    public LocalDateTime getStartTime(int id) {
+        final int row = rowOf(id);
+        return row < 0 || startSeconds[row] == NO_TIME
+                ? null
+                : LocalDateTime.ofEpochSecond(startSeconds[row], 0, ZoneOffset.UTC);
+    }
+
+    public LocalDateTime getEndTime(int id) {
+        final int row = rowOf(id);
+        if (row < 0) {
+            return null;
+        }
+        if (types[row] == TaskType.EPIC.ordinal()) {
+            return epicEndTimes.get(id);
+        }
+        return startSeconds[row] == NO_TIME || durationSeconds[row] == NO_DURATION
+                ? null
+                : LocalDateTime.ofEpochSecond(startSeconds[row] + durationSeconds[row], 0, ZoneOffset.UTC);
+    }
+
+    public Integer getEpicId(int id) {
+        final int row = rowOf(id);
+        return row < 0 || types[row] != TaskType.SUBTASK.ordinal() ? null : epicIds[row];
+    }
+
+    public String getTitle(int id) {
+        final int row = rowOf(id);
+        return row < 0 ? null : strings.get(titleRefs[row]);
+    }
+
+    public String getDescription(int id) {
+        final int row = rowOf(id);
+        return row < 0 ? null : strings.get(descriptionRefs[row]);
+    }
+
+    private void validate(Task task) {
+        if (task.getId() == null) {
+            throw new IllegalArgumentException("Задача без id не может быть сохранена.");
+        }
+        if (task instanceof Subtask subtask && subtask.getEpicId() == null) {
+            throw new IllegalArgumentException("Подзадача (id: " + task.getId() + ") не привязана к эпику.");
+        }
+        if (task.getStartTime() != null && task.getStartTime().getNano() != 0) {
+            throw new IllegalArgumentException("Время начала хранится с точностью до секунды.");
+        }
+        final Duration duration = task.getDuration();
+        if (duration != null && (duration.isNegative() || duration.getNano() != 0
+                || duration.getSeconds() > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Некорректная продолжительность задачи: " + duration);
+        }
+    }
+
+    private void writeRow(int row, Task task) {
+        final TaskType type = task.getType();
+        final int oldTitle = titleRefs[row];
+        final int oldDescription = descriptionRefs[row];
+        types[row] = (byte) type.ordinal();
+        statuses[row] = task.getStatus() == null ? NO_STATUS : (byte) task.getStatus().ordinal();
+        startSeconds[row] = task.getStartTime() == null
+                ? NO_TIME
+                : task.getStartTime().toEpochSecond(ZoneOffset.UTC);
+        durationSeconds[row] = task.getDuration() == null ? NO_DURATION : (int) task.getDuration().getSeconds();
+        titleRefs[row] = strings.intern(task.getTitle());
+        descriptionRefs[row] = strings.intern(task.getDescription());
+        strings.release(oldTitle);
+        strings.release(oldDescription);
+        if (type == TaskType.SUBTASK) {
+            final int epicId = ((Subtask) task).getEpicId();
+            epicIds[row] = epicId;
+            IntOrderedSet subtasks = subtasksByEpic.get(epicId);
+            if (subtasks == null) {
+                subtasks = new IntOrderedSet();
+                subtasksByEpic.put(epicId, subtasks);
+            }
+            subtasks.add(task.getId());
+        } else if (type == TaskType.EPIC && task.getEndTime() != null) {
+            epicEndTimes.put(task.getId(), task.getEndTime());
+        }
+    }
+
+    private Task materialize(int row) {
+        final int id = ids[row];
+        final String title = strings.get(titleRefs[row]);
+        final String description = strings.get(descriptionRefs[row]);
+        final TaskStatus status = statuses[row] == NO_STATUS ? null : STATUSES[statuses[row]];
+        final Duration duration = durationSeconds[row] == NO_DURATION
+                ? null
+                : Duration.ofSeconds(durationSeconds[row]);
+        final LocalDateTime startTime = startSeconds[row] == NO_TIME
+                ? null
+                : LocalDateTime.ofEpochSecond(startSeconds[row], 0, ZoneOffset.UTC);
+        return switch (TYPES[types[row]]) {
+            case TASK -> new Task(id, title, description, status, duration, startTime);
+            case SUBTASK -> new Subtask(id, title, description, status, duration, startTime, epicIds[row]);
+            case EPIC -> {
+                final EpicTask epic = new EpicTask(id, title, description, status, duration, startTime);
+                epic.setEndTime(epicEndTimes.get(id));
+                final IntOrderedSet subtasks = subtasksByEpic.get(id);
+                if (subtasks != null) {
+                    subtasks.forEachInt(epic::addSubtask);
+                }
+                yield epic;
+            }
+        };
+    }
+
+    private void unlinkSubtask(int epicId, int id) {
+        final IntOrderedSet subtasks = subtasksByEpic.get(epicId);
+        if (subtasks != null && subtasks.remove(id) && subtasks.isEmpty()) {
+            subtasksByEpic.remove(epicId);
+        }
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        types[to] = types[from];
+        statuses[to] = statuses[from];
+        startSeconds[to] = startSeconds[from];
+        durationSeconds[to] = durationSeconds[from];
+        epicIds[to] = epicIds[from];
+        titleRefs[to] = titleRefs[from];
+        descriptionRefs[to] = descriptionRefs[from];
+    }
+
+    private void growRows() {
+        final int rows = ids.length * 2;
+        ids = Arrays.copyOf(ids, rows);
+        types = Arrays.copyOf(types, rows);
+        statuses = Arrays.copyOf(statuses, rows);
+        startSeconds = Arrays.copyOf(startSeconds, rows);
+        durationSeconds = Arrays.copyOf(durationSeconds, rows);
+        epicIds = Arrays.copyOf(epicIds, rows);
+        titleRefs = Arrays.copyOf(titleRefs, rows);
+        descriptionRefs = Arrays.copyOf(descriptionRefs, rows);
+    }
+
+    private int rowOf(int id) {
+        return rowsById[findSlot(id)] - 1;
+    }
+
+    private int findSlot(int id) {
+        int slot = hash(id) & mask;
+        while (rowsById[slot] != 0 && ids[rowsById[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        rowsById[slot] = 0;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (rowsById[current] == 0) {
+                return;
+            }
+            final int ideal = hash(ids[rowsById[current] - 1]) & mask;
+            final boolean staysInPlace = slot <= current
+                    ? slot < ideal && ideal <= current
+                    : slot < ideal || ideal <= current;
+            if (!staysInPlace) {
+                rowsById[slot] = rowsById[current];
+                rowsById[current] = 0;
+                slot = current;
+            }
+        }
+    }
+
+    private void resizeIndex(int capacity) {
+        rowsById = new int[capacity];
+        mask = capacity - 1;
+        for (int row = 0; row < size; row++) {
+            rowsById[findSlot(ids[row])] = row + 1;
+        }
+    }
+
+    private static int hash(int id) {
+        return id ^ (id >>> 16);
+    }
+
+    private static class StringTable {
+        private static final int PAGE_BITS = 16;
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+        private static final int MAX_PAGES = 1 << (31 - PAGE_BITS);
+
+        private byte[][] pages = new byte[DEFAULT_CAPACITY][];
+        private int pageCount;
+        private int currentPage = -1;
+        private int currentPageUsed;
+        private long liveBytes;
+        private long garbageBytes;
+        private int[] addresses = new int[DEFAULT_CAPACITY];
+        private int[] lengths = new int[DEFAULT_CAPACITY];
+        private int[] hashes = new int[DEFAULT_CAPACITY];
+        private int[] refCounts = new int[DEFAULT_CAPACITY];
+        private int[] freeRefs = new int[DEFAULT_CAPACITY];
+        private int freeCount;
+        private int used;
+        private int live;
+        private int[] refsBySlot = new int[DEFAULT_CAPACITY * 2];
+        private int slotMask = refsBySlot.length - 1;
+
+        int intern(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            final int hash = value.hashCode();
+            int slot = spread(hash) & slotMask;
+            while (refsBySlot[slot] != 0) {
+                final int ref = refsBySlot[slot] - 1;
+                if (hashes[ref] == hash && lengths[ref] == encoded.length && matches(ref, encoded)) {
+                    refCounts[ref]++;
+                    return ref;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+            final int ref = allocateRef();
+            addresses[ref] = append(encoded, 0, encoded.length);
+            lengths[ref] = encoded.length;
+            hashes[ref] = hash;
+            refCounts[ref] = 1;
+            liveBytes += encoded.length;
+            refsBySlot[slot] = ref + 1;
+            if (++live * 3 > refsBySlot.length * 2) {
+                resizeSlots(refsBySlot.length * 2);
+            }
+            return ref;
+        }
+
+        String get(int ref) {
+            if (ref == NO_STRING) {
+                return null;
+            }
+            final int address = addresses[ref];
+            return new String(pages[address >>> PAGE_BITS], address & (PAGE_SIZE - 1), lengths[ref],
+                    StandardCharsets.UTF_8);
+        }
+
+        void release(int ref) {
+            if (ref == NO_STRING || --refCounts[ref] > 0) {
+                return;
+            }
+            int slot = spread(hashes[ref]) & slotMask;
+            while (refsBySlot[slot] != ref + 1) {
+                slot = (slot + 1) & slotMask;
+            }
+            deleteSlot(slot);
+            live--;
+            liveBytes -= lengths[ref];
+            garbageBytes += lengths[ref];
+            if (freeCount == freeRefs.length) {
+                freeRefs = Arrays.copyOf(freeRefs, freeCount * 2);
+            }
+            freeRefs[freeCount++] = ref;
+            if (garbageBytes >= PAGE_SIZE && garbageBytes > liveBytes) {
+                compactPages();
+            }
+        }
+
+        void clear() {
+            Arrays.fill(refsBySlot, 0);
+            Arrays.fill(pages, 0, pageCount, null);
+            pageCount = 0;
+            currentPage = -1;
+            currentPageUsed = 0;
+            liveBytes = 0;
+            garbageBytes = 0;
+            freeCount = 0;
+            used = 0;
+            live = 0;
+        }
+
+        private boolean matches(int ref, byte[] encoded) {
+            final int address = addresses[ref];
+            final int offset = address & (PAGE_SIZE - 1);
+            return Arrays.equals(pages[address >>> PAGE_BITS], offset, offset + lengths[ref],
+                    encoded, 0, encoded.length);
+        }
+
+        private int append(byte[] source, int from, int length) {
+            if (length > PAGE_SIZE) {
+                return addPage(Arrays.copyOfRange(source, from, from + length)) << PAGE_BITS;
+            }
+            if (currentPage < 0 || currentPageUsed + length > PAGE_SIZE) {
+                currentPage = addPage(new byte[PAGE_SIZE]);
+                currentPageUsed = 0;
+            }
+            System.arraycopy(source, from, pages[currentPage], currentPageUsed, length);
+            final int address = currentPage << PAGE_BITS | currentPageUsed;
+            currentPageUsed += length;
+            return address;
+        }
+
+        private int addPage(byte[] page) {
+            if (pageCount == MAX_PAGES) {
+                throw new IllegalStateException("Хранилище строк переполнено.");
+            }
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            pages[pageCount] = page;
+            return pageCount++;
+        }
+
+        private void compactPages() {
+            final boolean[] released = new boolean[used];
+            for (int i = 0; i < freeCount; i++) {
+                released[freeRefs[i]] = true;
+            }
+            final byte[][] previous = pages;
+            pages = new byte[Math.max(DEFAULT_CAPACITY, pageCount)][];
+            pageCount = 0;
+            currentPage = -1;
+            currentPageUsed = 0;
+            for (int ref = 0; ref < used; ref++) {
+                if (!released[ref]) {
+                    final int address = addresses[ref];
+                    addresses[ref] = append(previous[address >>> PAGE_BITS], address & (PAGE_SIZE - 1),
+                            lengths[ref]);
+                }
+            }
+            garbageBytes = 0;
+        }
+
+        private int allocateRef() {
+            if (freeCount > 0) {
+                return freeRefs[--freeCount];
+            }
+            if (used == addresses.length) {
+                final int capacity = used * 2;
+                addresses = Arrays.copyOf(addresses, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                refCounts = Arrays.copyOf(refCounts, capacity);
+            }
+            return used++;
+        }
+
+        private void deleteSlot(int slot) {
+            refsBySlot[slot] = 0;
+            int current = slot;
+            while (true) {
+                current = (current + 1) & slotMask;
+                if (refsBySlot[current] == 0) {
+                    return;
+                }
+                final int ideal = spread(hashes[refsBySlot[current] - 1]) & slotMask;
+                final boolean staysInPlace = slot <= current
+                        ? slot < ideal && ideal <= current
+                        : slot < ideal || ideal <= current;
+                if (!staysInPlace) {
+                    refsBySlot[slot] = refsBySlot[current];
+                    refsBySlot[current] = 0;
+                    slot = current;
+                }
+            }
+        }
+
+        private void resizeSlots(int capacity) {
+            final int[] previous = refsBySlot;
+            refsBySlot = new int[capacity];
+            slotMask = capacity - 1;
+            for (int stored : previous) {
+                if (stored != 0) {
+                    int slot = spread(hashes[stored - 1]) & slotMask;
+                    while (refsBySlot[slot] != 0) {
+                        slot = (slot + 1) & slotMask;
+                    }
+                    refsBySlot[slot] = stored;
+                }
+            }
+        }
+
+        private static int spread(int hash) {
+            final int mixed = hash * 0x9E3779B1;
+            return mixed ^ (mixed >>> 16);
+        }
+    }
+
+}
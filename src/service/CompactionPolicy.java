@@ -0,0 +1,49 @@
+package service;
+
+import java.time.Duration;
+
+public class CompactionPolicy {
+    private final long maxJournalBytes;
+    private final long maxJournalRecords;
+    private final Duration maxInterval;
+
+    public CompactionPolicy(long maxJournalBytes, long maxJournalRecords, Duration maxInterval) {
+        this.maxJournalBytes = maxJournalBytes;
+        this.maxJournalRecords = maxJournalRecords;
+        this.maxInterval = maxInterval;
+    }
+
+    public static CompactionPolicy getDefault() {
+        return new CompactionPolicy(64L * 1024 * 1024, 1_000_000, Duration.ofMinutes(10));
+    }
+
+    public long getMaxJournalBytes() {
+        return maxJournalBytes;
+    }
+
+    public long getMaxJournalRecords() {
+        return maxJournalRecords;
+    }
+
+    public Duration getMaxInterval() {
+        return maxInterval;
+    }
+
+    public boolean isExceeded(long journalBytes, long journalRecords, Duration sinceLastCompaction) {
+        if (journalRecords == 0) {
+            return false;
+        }
+        return journalBytes >= maxJournalBytes
+                || journalRecords >= maxJournalRecords
+                || sinceLastCompaction.compareTo(maxInterval) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactionPolicy{" +
+                "maxJournalBytes=" + maxJournalBytes +
+                ", maxJournalRecords=" + maxJournalRecords +
+                ", maxInterval=" + maxInterval +
+                '}';
+    }
+}
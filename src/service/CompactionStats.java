@@ -0,0 +1,59 @@
+package service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class CompactionStats {
+    private final long compactions;
+    private final LocalDateTime lastCompactionTime;
+    private final Duration lastCompactionDuration;
+    private final long lastSnapshotBytes;
+    private final long journalBytes;
+    private final long journalRecords;
+
+    public CompactionStats(long compactions, LocalDateTime lastCompactionTime, Duration lastCompactionDuration,
+                           long lastSnapshotBytes, long journalBytes, long journalRecords) {
+        this.compactions = compactions;
+        this.lastCompactionTime = lastCompactionTime;
+        this.lastCompactionDuration = lastCompactionDuration;
+        this.lastSnapshotBytes = lastSnapshotBytes;
+        this.journalBytes = journalBytes;
+        this.journalRecords = journalRecords;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public LocalDateTime getLastCompactionTime() {
+        return lastCompactionTime;
+    }
+
+    public Duration getLastCompactionDuration() {
+        return lastCompactionDuration;
+    }
+
+    public long getLastSnapshotBytes() {
+        return lastSnapshotBytes;
+    }
+
+    public long getJournalBytes() {
+        return journalBytes;
+    }
+
+    public long getJournalRecords() {
+        return journalRecords;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactionStats{" +
+                "compactions=" + compactions +
+                ", lastCompactionTime=" + lastCompactionTime +
+                ", lastCompactionDuration=" + lastCompactionDuration +
+                ", lastSnapshotBytes=" + lastSnapshotBytes +
+                ", journalBytes=" + journalBytes +
+                ", journalRecords=" + journalRecords +
+                '}';
+    }
+}
@@ -0,0 +1,242 @@
+package service;
+
+import exceptions.InvalidReceivedTimeException;
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import util.IntObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+    private static final int EPIC_LOCK_STRIPES = 64;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock[] epicLocks = new Lock[EPIC_LOCK_STRIPES];
+    private final List<IntObjectHashMap<EpicRollup>> stripeRollups = new ArrayList<>(EPIC_LOCK_STRIPES);
+    private final Object idLock = new Object();
+    private final Object scheduleLock = new Object();
+
+    public ConcurrentTaskManager() {
+        for (int i = 0; i < epicLocks.length; i++) {
+            epicLocks[i] = new ReentrantLock();
+            stripeRollups.add(new IntObjectHashMap<>());
+        }
+    }
+
+    private void write(Runnable operation) {
+        lock.writeLock().lock();
+        try {
+            operation.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void shared(Runnable operation) {
+        lock.readLock().lock();
+        try {
+            operation.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void striped(int id, Runnable operation) {
+        striped(id, id, operation);
+    }
+
+    private void striped(int firstId, int secondId, Runnable operation) {
+        final int first = stripeOf(firstId);
+        final int second = stripeOf(secondId);
+        final Lock outer = epicLocks[Math.min(first, second)];
+        final Lock inner = epicLocks[Math.max(first, second)];
+        lock.readLock().lock();
+        outer.lock();
+        if (inner != outer) {
+            inner.lock();
+        }
+        try {
+            operation.run();
+        } finally {
+            if (inner != outer) {
+                inner.unlock();
+            }
+            outer.unlock();
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int stripeOf(int id) {
+        return Math.floorMod(id, EPIC_LOCK_STRIPES);
+    }
+
+    @Override
+    public Integer getId() {
+        synchronized (idLock) {
+            return super.getId();
+        }
+    }
+
+    @Override
+    public Integer generateId() {
+        synchronized (idLock) {
+            return super.generateId();
+        }
+    }
+
+    @Override
+    protected TaskState commit(Task scheduled, UnaryOperator<TaskState> change) {
+        if (scheduled.getStartTime() == null) {
+            return commit(change);
+        }
+        synchronized (scheduleLock) {
+            if (state.get().getSchedule().hasConflict(scheduled)) {
+                throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+            }
+            return commit(change);
+        }
+    }
+
+    @Override
+    protected IntObjectHashMap<EpicRollup> rollupsOf(int epicId) {
+        return stripeRollups.get(stripeOf(epicId));
+    }
+
+    @Override
+    protected void clearRollups() {
+        stripeRollups.forEach(IntObjectHashMap::clear);
+    }
+
+    @Override
+    public void createTask(Task task) {
+        if (task.getId() == null) {
+            shared(() -> super.createTask(task));
+        } else {
+            striped(task.getId(), () -> super.createTask(task));
+        }
+    }
+
+    @Override
+    public void createSubtask(Subtask subtask) {
+        if (subtask.getEpicId() == null) {
+            shared(() -> super.createSubtask(subtask));
+        } else {
+            striped(subtask.getEpicId(), () -> super.createSubtask(subtask));
+        }
+    }
+
+    @Override
+    public void createEpicTask(EpicTask epictask) {
+        if (epictask.getId() == null) {
+            shared(() -> super.createEpicTask(epictask));
+        } else {
+            striped(epictask.getId(), () -> super.createEpicTask(epictask));
+        }
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        write(super::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpicTasks() {
+        write(super::deleteAllEpicTasks);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        write(super::deleteAllSubtasks);
+    }
+
+    @Override
+    public void deleteTask(int id) {
+        striped(id, () -> super.deleteTask(id));
+    }
+
+    @Override
+    public void deleteEpicTask(int id) {
+        striped(id, () -> super.deleteEpicTask(id));
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        while (true) {
+            final Subtask stored = state.get().getSubtasks().get(id);
+            if (stored == null) {
+                shared(() -> super.deleteSubtask(id));
+                return;
+            }
+            final int epicId = stored.getEpicId();
+            final boolean[] done = new boolean[1];
+            striped(epicId, () -> {
+                final Subtask current = state.get().getSubtasks().get(id);
+                if (current == null || current.getEpicId() == epicId) {
+                    super.deleteSubtask(id);
+                    done[0] = true;
+                }
+            });
+            if (done[0]) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void applyBatch(List<Task> batch) {
+        write(() -> super.applyBatch(batch));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        if (task.getId() == null) {
+            shared(() -> super.updateTask(task));
+        } else {
+            striped(task.getId(), () -> super.updateTask(task));
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        if (subtask.getId() == null || subtask.getEpicId() == null) {
+            shared(() -> super.updateSubtask(subtask));
+            return;
+        }
+        final int id = subtask.getId();
+        while (true) {
+            final Subtask stored = state.get().getSubtasks().get(id);
+            final int oldEpicId = stored == null ? subtask.getEpicId() : stored.getEpicId();
+            final boolean[] done = new boolean[1];
+            striped(oldEpicId, subtask.getEpicId(), () -> {
+                final Subtask current = state.get().getSubtasks().get(id);
+                if (current == stored || current != null && current.getEpicId() == oldEpicId) {
+                    super.updateSubtask(subtask);
+                    done[0] = true;
+                }
+            });
+            if (done[0]) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void updateEpicTask(EpicTask newEpictask) {
+        if (newEpictask.getId() != null) {
+            striped(newEpictask.getId(), () -> super.updateEpicTask(newEpictask));
+        }
+    }
+
+    @Override
+    public void updateEpicTaskStatus(Integer id) {
+        if (id != null) {
+            striped(id, () -> super.updateEpicTaskStatus(id));
+        }
+    }
+
+}
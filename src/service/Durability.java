@@ -0,0 +1,7 @@
+package service;
+
+public enum Durability {
+    NONE,
+    ASYNC,
+    SYNC
+}
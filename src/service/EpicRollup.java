@@ -0,0 +1,88 @@
+package service;
+
+import model.Subtask;
+import model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class EpicRollup {
+    private final Map<Integer, CountedSubtask> countedSubtasks = new HashMap<>();
+    private final int[] statusCounters = new int[TaskStatus.values().length];
+    private final NavigableMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
+
+    public void add(Subtask subtask) {
+        remove(subtask.getId());
+        final LocalDateTime startTime = subtask.getStartTime();
+        final LocalDateTime endTime = subtask.getEndTime() == null ? startTime : subtask.getEndTime();
+        final CountedSubtask counted = new CountedSubtask(subtask.getStatus(), startTime, endTime);
+
+        countedSubtasks.put(subtask.getId(), counted);
+        statusCounters[counted.status.ordinal()]++;
+        if (startTime != null) {
+            startTimes.merge(startTime, 1, Integer::sum);
+            endTimes.merge(endTime, 1, Integer::sum);
+        }
+    }
+
+    public void remove(Integer subtaskId) {
+        final CountedSubtask counted = countedSubtasks.remove(subtaskId);
+        if (counted == null) {
+            return;
+        }
+        statusCounters[counted.status.ordinal()]--;
+        if (counted.startTime != null) {
+            decrement(startTimes, counted.startTime);
+            decrement(endTimes, counted.endTime);
+        }
+    }
+
+    private static void decrement(NavigableMap<LocalDateTime, Integer> times, LocalDateTime time) {
+        times.computeIfPresent(time, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    public boolean isEmpty() {
+        return countedSubtasks.isEmpty();
+    }
+
+    public TaskStatus getStatus() {
+        final int size = countedSubtasks.size();
+        if (size == statusCounters[TaskStatus.NEW.ordinal()]) {
+            return TaskStatus.NEW;
+        } else if (size == statusCounters[TaskStatus.DONE.ordinal()]) {
+            return TaskStatus.DONE;
+        } else {
+            return TaskStatus.IN_PROGRESS;
+        }
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTimes.isEmpty() ? null : startTimes.firstKey();
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTimes.isEmpty() ? null : endTimes.lastKey();
+    }
+
+    public Duration getDuration() {
+        return startTimes.isEmpty() ? null : Duration.between(getStartTime(), getEndTime());
+    }
+
+    private static class CountedSubtask {
+        private final TaskStatus status;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+
+        private CountedSubtask(TaskStatus status, LocalDateTime startTime, LocalDateTime endTime) {
+            this.status = status;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+
+}
@@ -2,171 +2,709 @@ package service;
 
 import exceptions.LoadingFromFileException;
 import exceptions.SavingToFileException;
+import model.TaskType;
+import util.BinarySnapshotFormatter;
 import util.CSVFormatter;
+import util.CSVRecordParser;
+import util.CSVRecordReader;
+import util.Compression;
+import util.CompressionStreams;
+import util.CountingInputStream;
+import util.SnapshotFormat;
 import model.EpicTask;
 import model.Subtask;
 import model.Task;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.Map;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_REPORT_INTERVAL = 10_000;
     private final File backupFile;
+    private volatile SnapshotFormat snapshotFormat;
+    private volatile Compression snapshotCompression = Compression.NONE;
+    private final TaskJournal journal;
+    private JournalCompactor compactor;
+    private final ThreadLocal<Durability> requestedDurability = new ThreadLocal<>();
+    private volatile Durability defaultDurability = Durability.SYNC;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private ExecutorService snapshotSaver;
+    private boolean unsavedChanges;
 
     public FileBackedTaskManager(File backupFile) {
+        this(backupFile, null);
+    }
+
+    public FileBackedTaskManager(File backupFile, File journalFile) {
+        this(backupFile, journalFile, SnapshotFormat.CSV);
+    }
+
+    public FileBackedTaskManager(File backupFile, File journalFile, SnapshotFormat snapshotFormat) {
         this.backupFile = backupFile;
+        this.journal = journalFile == null ? null : new TaskJournal(journalFile);
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    public Compression getSnapshotCompression() {
+        return snapshotCompression;
+    }
+
+    public void setSnapshotCompression(Compression snapshotCompression) {
+        this.snapshotCompression = snapshotCompression;
+    }
+
+    public void setJournalCompression(Compression compression) {
+        if (journal == null) {
+            throw new IllegalStateException("Журнал операций не подключен.");
+        }
+        journal.setCompression(compression);
+    }
+
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    public Durability getDefaultDurability() {
+        return defaultDurability;
+    }
+
+    public void setDefaultDurability(Durability durability) {
+        this.defaultDurability = durability;
+    }
+
+    @Override
+    public void runWithDurability(Durability durability, Runnable operation) {
+        if (durability == null) {
+            operation.run();
+            return;
+        }
+        final Durability previous = requestedDurability.get();
+        requestedDurability.set(durability);
+        try {
+            operation.run();
+        } finally {
+            requestedDurability.set(previous);
+        }
+    }
+
+    private Durability getCurrentDurability() {
+        final Durability durability = requestedDurability.get();
+        return durability == null ? defaultDurability : durability;
     }
 
     private void save() {
-        try (BufferedWriter buffwriter = new BufferedWriter(new FileWriter(backupFile))) {
-            buffwriter.write(CSVFormatter.getHeader());
+        unsavedChanges = false;
+        replaceSnapshot(getAllTasks(), getAllEpicTasks(), getAllSubtasks());
+    }
+
+    private void replaceSnapshot(List<Task> tasks, List<EpicTask> epics, List<Subtask> subtasks) {
+        final File tempFile = new File(backupFile.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(tempFile)) {
+            final OutputStream out = CompressionStreams.wrap(fileOut, snapshotCompression);
+            writeSnapshot(out, snapshotFormat, tasks, epics, subtasks);
+            CompressionStreams.finish(out);
+            fileOut.getChannel().force(true);
+        } catch (IOException e) {
+            throw new SavingToFileException("Ошибка записи снимка задач во временный файл.", e);
+        }
+
+        try {
+            Files.move(tempFile.toPath(), backupFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new SavingToFileException("Ошибка замены файла снимка задач.", e);
+        }
+    }
+
+    public void exportToCsv(File file) {
+        final List<Task> tasks;
+        final List<EpicTask> epics;
+        final List<Subtask> subtasks;
+
+        synchronized (this) {
+            tasks = getAllTasks();
+            epics = getAllEpicTasks();
+            subtasks = getAllSubtasks();
+        }
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeSnapshot(out, SnapshotFormat.CSV, tasks, epics, subtasks);
+        } catch (IOException e) {
+            throw new SavingToFileException("Ошибка экспорта задач в CSV-файл.", e);
+        }
+    }
+
+    private void writeSnapshot(OutputStream out, SnapshotFormat format, List<Task> tasks, List<EpicTask> epics,
+                               List<Subtask> subtasks) throws IOException {
+        switch (format) {
+            case CSV -> writeCsvSnapshot(out, tasks, epics, subtasks);
+            case BINARY -> writeBinarySnapshot(out, tasks, epics, subtasks);
+        }
+    }
+
+    private void writeCsvSnapshot(OutputStream out, List<Task> tasks, List<EpicTask> epics,
+                                  List<Subtask> subtasks) throws IOException {
+        final BufferedWriter buffwriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                IO_BUFFER_SIZE);
+        buffwriter.write(CSVFormatter.getHeader());
+        buffwriter.newLine();
+
+        for (final Task task : tasks) {
+            buffwriter.write(CSVFormatter.taskToString(task));
             buffwriter.newLine();
+        }
 
-            for (final Task task : getAllTasks()) {
-                buffwriter.write(CSVFormatter.taskToString(task));
-                buffwriter.newLine();
-            }
+        for (final Task task : epics) {
+            buffwriter.write(CSVFormatter.taskToString(task));
+            buffwriter.newLine();
+        }
+
+        for (final Task task : subtasks) {
+            buffwriter.write(CSVFormatter.taskToString(task));
+            buffwriter.newLine();
+        }
+        buffwriter.flush();
+    }
+
+    private void writeBinarySnapshot(OutputStream out, List<Task> tasks, List<EpicTask> epics,
+                                     List<Subtask> subtasks) throws IOException {
+        final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out, IO_BUFFER_SIZE));
+        BinarySnapshotFormatter.writeHeader(dataOut, tasks.size() + epics.size() + subtasks.size());
+
+        for (final Task task : tasks) {
+            BinarySnapshotFormatter.writeRecord(dataOut, task);
+        }
+
+        for (final Task task : epics) {
+            BinarySnapshotFormatter.writeRecord(dataOut, task);
+        }
+
+        for (final Task task : subtasks) {
+            BinarySnapshotFormatter.writeRecord(dataOut, task);
+        }
+        dataOut.flush();
+    }
+
+    public void enableCompaction(CompactionPolicy policy) {
+        if (journal == null) {
+            throw new IllegalStateException("Сжатие доступно только в режиме журнала операций.");
+        }
+        if (compactor != null) {
+            compactor.stop();
+        }
+        compactor = new JournalCompactor(this, journal, policy);
+        compactor.start();
+    }
+
+    public JournalCompactor getCompactor() {
+        return compactor;
+    }
 
-            for (final Task task : getAllEpicTasks()) {
-                buffwriter.write(CSVFormatter.taskToString(task));
-                buffwriter.newLine();
+    public CompactionStats getCompactionStats() {
+        return compactor == null ? null : compactor.getStats();
+    }
+
+    long compact() {
+        final List<Task> tasks;
+        final List<EpicTask> epics;
+        final List<Subtask> subtasks;
+        final List<File> sealedSegments;
+
+        synchronized (this) {
+            tasks = getAllTasks();
+            epics = getAllEpicTasks();
+            subtasks = getAllSubtasks();
+            sealedSegments = journal.rotate();
+        }
+
+        replaceSnapshot(tasks, epics, subtasks);
+        journal.deleteSegments(sealedSegments);
+        return backupFile.length();
+    }
+
+    private synchronized void scheduleSave() {
+        unsavedChanges = true;
+        if (!saveScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (snapshotSaver == null) {
+            snapshotSaver = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "snapshot-saver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        snapshotSaver.execute(() -> {
+            saveScheduled.set(false);
+            try {
+                synchronized (this) {
+                    if (unsavedChanges) {
+                        save();
+                    }
+                }
+            } catch (SavingToFileException e) {
+                System.out.println("FAIL: " + e.getMessage());
             }
+        });
+    }
 
-            for (final Task task : getAllSubtasks()) {
-                buffwriter.write(CSVFormatter.taskToString(task));
-                buffwriter.newLine();
+    public void close() {
+        if (compactor != null) {
+            compactor.stop();
+        }
+        if (snapshotSaver != null) {
+            snapshotSaver.shutdown();
+        }
+        synchronized (this) {
+            if (journal == null && unsavedChanges) {
+                save();
             }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, null);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, File journalFile) {
+        return loadFromFile(file, journalFile, null);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, File journalFile, LoadProgressListener listener) {
+        return loadFromFile(file, journalFile, listener, RecoveryMode.SEAL_TORN_TAIL);
+    }
 
+    public static FileBackedTaskManager loadFromFile(File file, File journalFile, LoadProgressListener listener,
+                                                     RecoveryMode recoveryMode) {
+        final FileBackedTaskManager taskManager = new FileBackedTaskManager(file, journalFile);
+
+        if (journalFile == null || file.exists()) {
+            taskManager.loadSnapshot(listener);
+        }
+        if (journalFile != null) {
+            taskManager.journal.replay(taskManager, recoveryMode);
+        }
+        taskManager.completeRestore();
+
+        return taskManager;
+    }
+
+    public static FileBackedTaskManager loadFromFileInParallel(File file, File journalFile) {
+        return loadFromFileInParallel(file, journalFile, ForkJoinPool.commonPool());
+    }
+
+    public static FileBackedTaskManager loadFromFileInParallel(File file, File journalFile, ForkJoinPool pool) {
+        if (!file.exists() || !isParallelLoadSupported(file)) {
+            return loadFromFile(file, journalFile);
+        }
+        final FileBackedTaskManager taskManager = new FileBackedTaskManager(file, journalFile);
+
+        taskManager.restoreAll(new ParallelSnapshotLoader(file, pool).load());
+        if (journalFile != null) {
+            taskManager.journal.replay(taskManager);
+        }
+        taskManager.completeRestore();
+
+        return taskManager;
+    }
+
+    private static boolean isParallelLoadSupported(File file) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            if (CompressionStreams.detect(in) != Compression.NONE) {
+                return false;
+            }
+            final byte[] header = in.readNBytes(4);
+            return !BinarySnapshotFormatter.startsWithMagic(header, header.length);
         } catch (IOException e) {
-            throw new SavingToFileException("Ошибка записи/сохранения задач в файл", e);
+            throw new LoadingFromFileException("Ошибка чтения/загрузки из файла.", e);
         }
     }
 
-    public static FileBackedTaskManager loadFromFile(File file) {
-        final FileBackedTaskManager taskManager = new FileBackedTaskManager(file);
+    private void loadSnapshot(LoadProgressListener listener) {
+        final long totalBytes = backupFile.length();
+        try (CountingInputStream counter = new CountingInputStream(new FileInputStream(backupFile));
+             InputStream raw = new BufferedInputStream(counter, IO_BUFFER_SIZE)) {
+            snapshotCompression = CompressionStreams.detect(raw);
+            final InputStream in = snapshotCompression == Compression.NONE
+                    ? raw
+                    : new BufferedInputStream(CompressionStreams.unwrap(raw, snapshotCompression), IO_BUFFER_SIZE);
+            final byte[] header = new byte[4];
+            in.mark(header.length);
+            final int headerLength = in.readNBytes(header, 0, header.length);
+            in.reset();
 
-        try {
-            final String fullFile = Files.readString(file.toPath());
-            final String[] lines = fullFile.split(System.lineSeparator());
-            int lastId = -1;
-            int lineNum = 1;
-
-            for (int i = lineNum; lineNum < lines.length; lineNum++) {
-                String currLine = lines[lineNum];
-                if (currLine.isBlank()) {
-                    break;
+            final long[] tasksLoaded = new long[1];
+            final Runnable progress = () -> {
+                if (++tasksLoaded[0] % PROGRESS_REPORT_INTERVAL == 0 && listener != null) {
+                    listener.onProgress(counter.getBytesRead(), totalBytes, tasksLoaded[0]);
                 }
-                Task task = CSVFormatter.stringToTask(currLine);
-                taskManager.defineTypeAndAddToRelevantStorage(task);
-                if (lastId < task.getId()) {
-                    lastId = task.getId();
+            };
+
+            if (BinarySnapshotFormatter.startsWithMagic(header, headerLength)) {
+                snapshotFormat = SnapshotFormat.BINARY;
+                final boolean intact = BinarySnapshotFormatter.read(new DataInputStream(in), task -> {
+                    restoreTask(task);
+                    progress.run();
+                });
+                if (!intact) {
+                    System.out.println("FAIL: Снимок " + backupFile + " поврежден, восстановлено задач: "
+                            + tasksLoaded[0]);
                 }
+            } else {
+                snapshotFormat = SnapshotFormat.CSV;
+                loadCsvSnapshot(new CSVRecordReader(new InputStreamReader(in, StandardCharsets.UTF_8)), progress);
             }
 
-            for (Map.Entry<Integer, Subtask> entry : taskManager.allSubtasks.entrySet()) {
-                final Subtask subtask = entry.getValue();
-                final EpicTask epic = taskManager.allEpicTasks.get(subtask.getEpicId());
-                epic.addSubtask(subtask.getId());
+            if (listener != null) {
+                listener.onProgress(counter.getBytesRead(), totalBytes, tasksLoaded[0]);
             }
 
-            taskManager.taskId = lastId;
-
         } catch (IOException e) {
             throw new LoadingFromFileException("Ошибка чтения/загрузки из файла.", e);
         }
-        return taskManager;
     }
 
-    private void defineTypeAndAddToRelevantStorage(Task task) {
+    private void loadCsvSnapshot(CSVRecordReader reader, Runnable progress) throws IOException {
+        reader.next();
+        CSVRecordParser record;
+
+        while ((record = reader.next()) != null) {
+            restoreTask(CSVFormatter.recordToTask(record, 0));
+            progress.run();
+        }
+    }
+
+    private void restoreAll(List<Task> tasks) {
+        final List<Task> timedTasks = new ArrayList<>();
+        TaskState restored = state.get();
+        for (Task task : tasks) {
+            final Integer id = task.getId();
+            restored = restored.put(task);
+            if (task.getType() == TaskType.SUBTASK) {
+                addSubtaskToEpicRollup((Subtask) task);
+            }
+            indexTask(task);
+            if (task.getType() != TaskType.EPIC && task.getStartTime() != null) {
+                timedTasks.add(task);
+            }
+            if (taskId < id) {
+                taskId = id;
+            }
+        }
+
+        for (Task task : tasks) {
+            if (task.getType() == TaskType.SUBTASK) {
+                final EpicTask epicOwner = restored.getEpics().get(((Subtask) task).getEpicId());
+                if (epicOwner != null) {
+                    epicOwner.addSubtask(task.getId());
+                }
+            }
+        }
+
+        final Task[] sortedByTime = timedTasks.toArray(new Task[0]);
+        Arrays.parallelSort(sortedByTime, Comparator.comparing(Task::getStartTime));
+        for (Task task : sortedByTime) {
+            restored = restored.schedule(task);
+        }
+        state.set(restored);
+    }
+
+    void restoreTask(Task task) {
+        final int id = task.getId();
         switch (task.getType()) {
             case EPIC:
-                allEpicTasks.put(task.getId(), (EpicTask) task);
+                final EpicTask epic = (EpicTask) task;
+                commit(current -> {
+                    final EpicTask oldEpic = current.getEpics().get(id);
+                    if (oldEpic == null) {
+                        return current.put(epic);
+                    }
+                    final EpicTask replaced = new EpicTask(oldEpic);
+                    replaced.setTitle(epic.getTitle());
+                    replaced.setDescription(epic.getDescription());
+                    replaced.setStatus(epic.getStatus());
+                    replaced.setDuration(epic.getDuration());
+                    replaced.setStartTime(epic.getStartTime());
+                    replaced.setEndTime(epic.getEndTime());
+                    return current.put(replaced);
+                });
+                break;
+            case SUBTASK:
+                final Subtask subtask = (Subtask) task;
+                final Subtask oldSubtask = state.get().getSubtasks().get(id);
+                if (oldSubtask != null) {
+                    removeSubtaskFromEpicRollup(oldSubtask);
+                }
+                addSubtaskToEpicRollup(subtask);
+                commit(current -> {
+                    TaskState next = current;
+                    if (oldSubtask != null) {
+                        next = unlinkFromEpic(next.unschedule(oldSubtask), oldSubtask);
+                    }
+                    final EpicTask epicOwner = next.getEpics().get(subtask.getEpicId());
+                    if (epicOwner != null) {
+                        next = next.put(withSubtask(epicOwner, id));
+                    }
+                    return next.put(subtask).schedule(subtask);
+                });
+                break;
+            case TASK:
+                commit(current -> {
+                    final Task oldTask = current.getTasks().get(id);
+                    return (oldTask == null ? current : current.unschedule(oldTask)).put(task).schedule(task);
+                });
+                break;
+        }
+        indexTask(task);
+        if (taskId < id) {
+            taskId = id;
+        }
+    }
+
+    void restoreDeletion(TaskType type, int id) {
+        switch (type) {
+            case EPIC:
+                final EpicTask epic = state.get().getEpics().get(id);
+                if (epic != null) {
+                    commit(current -> {
+                        TaskState next = current.remove(TaskType.EPIC, id);
+                        for (Integer subtaskId : epic.getSubtasks()) {
+                            final Subtask subtask = current.getSubtasks().get(subtaskId);
+                            if (subtask != null) {
+                                next = next.remove(TaskType.SUBTASK, subtaskId).unschedule(subtask);
+                            }
+                        }
+                        return next;
+                    });
+                    epic.getSubtasks().forEach(subtaskId -> unindexTask(TaskType.SUBTASK, subtaskId));
+                }
+                rollupsOf(id).remove(id);
+                unindexTask(TaskType.EPIC, id);
+                break;
+            case SUBTASK:
+                final Subtask subtask = state.get().getSubtasks().get(id);
+                if (subtask != null) {
+                    removeSubtaskFromEpicRollup(subtask);
+                    commit(current -> unlinkFromEpic(current.remove(TaskType.SUBTASK, id).unschedule(subtask),
+                            subtask));
+                }
+                unindexTask(TaskType.SUBTASK, id);
+                break;
+            case TASK:
+                final Task task = state.get().getTasks().get(id);
+                if (task != null) {
+                    commit(current -> current.remove(TaskType.TASK, id).unschedule(task));
+                }
+                unindexTask(TaskType.TASK, id);
+                break;
+        }
+    }
+
+    void restoreDeletionOfAll(TaskType type) {
+        switch (type) {
+            case EPIC:
+                commit(current -> unscheduleAll(current, current.getSubtasks().values())
+                        .clear(TaskType.SUBTASK)
+                        .clear(TaskType.EPIC));
+                clearRollups();
+                clearIndexes(TaskType.SUBTASK);
+                clearIndexes(TaskType.EPIC);
                 break;
             case SUBTASK:
-                allSubtasks.put(task.getId(), (Subtask) task);
-                addTaskToPrioritizedTasks(task);
+                commit(current -> {
+                    TaskState next = unscheduleAll(current, current.getSubtasks().values()).clear(TaskType.SUBTASK);
+                    for (EpicTask epic : current.getEpics().values()) {
+                        final EpicTask emptied = new EpicTask(epic);
+                        emptied.deleteSubtasks();
+                        next = next.put(emptied);
+                    }
+                    return next;
+                });
+                clearRollups();
+                clearIndexes(TaskType.SUBTASK);
                 break;
             case TASK:
-                allTasks.put(task.getId(), task);
-                addTaskToPrioritizedTasks(task);
+                commit(current -> unscheduleAll(current, current.getTasks().values()).clear(TaskType.TASK));
+                clearIndexes(TaskType.TASK);
                 break;
         }
     }
 
+    private TaskState unlinkFromEpic(TaskState current, Subtask subtask) {
+        final EpicTask epicOwner = current.getEpics().get(subtask.getEpicId());
+        return epicOwner == null ? current : current.put(withoutSubtask(epicOwner, subtask.getId()));
+    }
+
+    private void completeRestore() {
+        for (Subtask subtask : state.get().getSubtasks().values()) {
+            if (!state.get().getEpics().containsKey(subtask.getEpicId())) {
+                restoreDeletion(TaskType.SUBTASK, subtask.getId());
+            }
+        }
+        for (Integer epicId : state.get().getEpics().keys()) {
+            updateEpicAttributes(epicId);
+        }
+    }
+
+    TaskJournal getJournal() {
+        return journal;
+    }
+
+    private void mutate(Runnable mutation, Function<Durability, CompletableFuture<Void>> persistence) {
+        final Durability durability = getCurrentDurability();
+        final CompletableFuture<Void> commit;
+        synchronized (this) {
+            mutation.run();
+            commit = persist(durability, persistence);
+        }
+        if (durability == Durability.SYNC) {
+            TaskJournal.awaitCommit(commit);
+        }
+    }
+
+    private CompletableFuture<Void> persist(Durability durability,
+                                            Function<Durability, CompletableFuture<Void>> persistence) {
+        if (journal != null) {
+            return persistence.apply(durability);
+        }
+        switch (durability) {
+            case SYNC -> save();
+            case ASYNC -> scheduleSave();
+            case NONE -> unsavedChanges = true;
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private Task findStored(TaskType type, Integer id) {
+        return id == null ? null : findStoredTask(type, id);
+    }
+
+    private CompletableFuture<Void> persistUpsert(Task task, Durability durability) {
+        if (task == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return journal.appendUpsert(task, durability);
+    }
+
+    private CompletableFuture<Void> persistBatch(List<Task> batch, Durability durability) {
+        final List<Task> stored = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            stored.add(task.getType() == TaskType.EPIC ? findStored(TaskType.EPIC, task.getId()) : task);
+        }
+        return journal.appendUpserts(stored, durability);
+    }
+
+    private CompletableFuture<Void> persistDeletion(TaskType type, int id, Durability durability) {
+        return journal.appendDelete(type, id, durability);
+    }
+
+    private CompletableFuture<Void> persistDeletionOfAll(TaskType type, Durability durability) {
+        return journal.appendDeleteAll(type, durability);
+    }
+
     @Override
     public void createTask(Task task) {
-        super.createTask(task);
-        save();
+        mutate(() -> super.createTask(task), durability -> persistUpsert(task, durability));
     }
 
     @Override
     public void createSubtask(Subtask subtask) {
-        super.createSubtask(subtask);
-        save();
+        mutate(() -> super.createSubtask(subtask), durability -> persistUpsert(subtask, durability));
     }
 
     @Override
     public void createEpicTask(EpicTask epictask) {
-        super.createEpicTask(epictask);
-        save();
+        mutate(() -> super.createEpicTask(epictask),
+                durability -> persistUpsert(findStored(TaskType.EPIC, epictask.getId()), durability));
+    }
+
+    @Override
+    public void applyBatch(List<Task> batch) {
+        mutate(() -> super.applyBatch(batch), durability -> persistBatch(batch, durability));
     }
 
     @Override
     public void deleteAllTasks() {
-        super.deleteAllTasks();
-        save();
+        mutate(super::deleteAllTasks, durability -> persistDeletionOfAll(TaskType.TASK, durability));
     }
 
     @Override
     public void deleteAllEpicTasks() {
-        super.deleteAllEpicTasks();
-        save();
+        mutate(super::deleteAllEpicTasks, durability -> persistDeletionOfAll(TaskType.EPIC, durability));
     }
 
     @Override
     public void deleteAllSubtasks() {
-        super.deleteAllSubtasks();
-        save();
+        mutate(super::deleteAllSubtasks, durability -> persistDeletionOfAll(TaskType.SUBTASK, durability));
     }
 
     @Override
-    public void deleteTask(Integer id) {
-        super.deleteTask(id);
-        save();
+    public void deleteTask(int id) {
+        mutate(() -> super.deleteTask(id), durability -> persistDeletion(TaskType.TASK, id, durability));
     }
 
     @Override
-    public void deleteEpicTask(Integer id) {
-        super.deleteEpicTask(id);
-        save();
+    public void deleteEpicTask(int id) {
+        mutate(() -> super.deleteEpicTask(id), durability -> persistDeletion(TaskType.EPIC, id, durability));
     }
 
     @Override
-    public void deleteSubtask(Integer id) {
-        super.deleteSubtask(id);
-        save();
+    public void deleteSubtask(int id) {
+        mutate(() -> super.deleteSubtask(id), durability -> persistDeletion(TaskType.SUBTASK, id, durability));
     }
 
     @Override
     public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        mutate(() -> super.updateTask(task),
+                durability -> persistUpsert(findStored(TaskType.TASK, task.getId()), durability));
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+        mutate(() -> super.updateSubtask(subtask),
+                durability -> persistUpsert(findStored(TaskType.SUBTASK, subtask.getId()), durability));
     }
 
     @Override
     public void updateEpicTask(EpicTask epic) {
-        super.updateEpicTask(epic);
-        save();
+        mutate(() -> super.updateEpicTask(epic),
+                durability -> persistUpsert(findStored(TaskType.EPIC, epic.getId()), durability));
     }
 
 }
@@ -2,13 +2,13 @@ package service;
 
 import model.Task;
 
-import java.util.Map;
-import java.util.HashMap;
+import util.IntObjectHashMap;
+
 import java.util.List;
 import java.util.ArrayList;
 
 public class InMemoryHistoryManager implements HistoryManager {
-    private Map<Integer, Node> historyMap = new HashMap<>();
+    private IntObjectHashMap<Node> historyMap = new IntObjectHashMap<>();
     private Node head;
     private Node tail;
 
@@ -23,7 +23,7 @@ public class InMemoryHistoryManager implements HistoryManager {
     }
 
     @Override
-    public void add(Task task) {
+    public synchronized void add(Task task) {
         if (task != null) {
             int id = task.getId();
             Task savedTask = new Task(task.getTitle(), task.getDescription());
@@ -54,13 +54,13 @@ public class InMemoryHistoryManager implements HistoryManager {
     }
 
     @Override
-    public void remove(int id) {
+    public synchronized void remove(int id) {
         removeNode(historyMap.get(id));
         historyMap.remove(id);
     }
 
     @Override
-    public List<Task> getHistory() {
+    public synchronized List<Task> getHistory() {
         List<Task> historyList = new ArrayList<>();
         Node currNode = head;
         while (currNode != null) {
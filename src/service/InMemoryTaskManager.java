@@ -3,19 +3,24 @@ package service;
 import exceptions.InvalidReceivedTimeException;
 import exceptions.TaskNotFoundException;
 import model.*;
+import util.IntObjectHashMap;
+import util.IntOrderedSet;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
     protected Integer taskId = 0;
-    protected Map<Integer, Task> allTasks = new HashMap<>();
-    protected Map<Integer, EpicTask> allEpicTasks = new HashMap<>();
-    protected Map<Integer, Subtask> allSubtasks = new HashMap<>();
+    protected final AtomicReference<TaskState> state = new AtomicReference<>(TaskState.empty());
     protected HistoryManager history = Managers.getDefaultHistory();
-    protected Set<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    protected IntObjectHashMap<EpicRollup> epicRollups = new IntObjectHashMap<>();
+    protected StatusIndex statusIndex = new StatusIndex();
+    protected SearchIndex searchIndex = new SearchIndex();
+    protected ChangeFeed changeFeed = new ChangeFeed();
 
     @Override
     public List<Task> getHistory() {
@@ -34,293 +39,674 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void createTask(Task task) {
-        if (isTimeIntervalBooked(task, getPrioritizedTasks())) {
+        if (isTimeIntervalBooked(task)) {
             throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
         }
 
-        Integer newId;
         if (task.getId() == null) {
-            newId = generateId();
-            task.setId(newId);
-        } else {
-            newId = task.getId();
+            task.setId(generateId());
         }
 
-        allTasks.put(newId, task);
-        addTaskToPrioritizedTasks(task);
+        commit(task, current -> current.put(task).schedule(task));
+        indexTask(task);
+        publishChange(ChangeType.CREATED, null, task);
     }
 
     @Override
     public void createSubtask(Subtask subtask) {
-        if (isTimeIntervalBooked(subtask, getPrioritizedTasks())) {
+        if (subtask.getEpicId() == null || !state.get().getEpics().containsKey(subtask.getEpicId())) {
+            throw new TaskNotFoundException("Задача (EpicTask, id: " + subtask.getEpicId() + ") не найдена.");
+        }
+        if (isTimeIntervalBooked(subtask)) {
             throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
         }
 
-        Integer newId;
         if (subtask.getId() == null) {
-            newId = generateId();
-            subtask.setId(newId);
-        } else {
-            newId = subtask.getId();
+            subtask.setId(generateId());
         }
 
-        EpicTask epicOwner = allEpicTasks.get(subtask.getEpicId());
-        addTaskToPrioritizedTasks(subtask);
-        epicOwner.addSubtask(newId);
-        allSubtasks.put(newId, subtask);
-        updateEpicAttributes(epicOwner.getId());
+        final int id = subtask.getId();
+        final int epicId = subtask.getEpicId();
+        addSubtaskToEpicRollup(subtask);
+        final TaskState updated;
+        try {
+            updated = commit(subtask, current -> current.put(subtask).schedule(subtask)
+                    .put(withSubtask(current.getEpics().get(epicId), id)));
+        } catch (RuntimeException e) {
+            removeSubtaskFromEpicRollup(subtask);
+            throw e;
+        }
+        indexTask(subtask);
+        indexTask(updated.getEpics().get(epicId));
+        publishChange(ChangeType.CREATED, null, subtask);
     }
 
     @Override
     public void createEpicTask(EpicTask epictask) {
-        Integer newId;
         if (epictask.getId() == null) {
-            newId = generateId();
-            epictask.setId(newId);
-        } else {
-            newId = epictask.getId();
+            epictask.setId(generateId());
         }
 
-        allEpicTasks.put(newId, epictask);
-        updateEpicAttributes(newId);
+        final EpicTask stored = rolledUp(epictask);
+        commit(current -> current.put(stored));
+        indexTask(stored);
+        publishChange(ChangeType.CREATED, null, stored);
     }
 
     @Override
-    public ArrayList<Task> getAllTasks() {
-        return new ArrayList<>(allTasks.values());
+    public List<Task> getAllTasks() {
+        return getSnapshot().getTasks();
     }
 
     @Override
-    public ArrayList<EpicTask> getAllEpicTasks() {
-        return new ArrayList<>(allEpicTasks.values());
+    public List<EpicTask> getAllEpicTasks() {
+        return getSnapshot().getEpics();
     }
 
     @Override
-    public ArrayList<Subtask> getAllSubtasks() {
-        return new ArrayList<>(allSubtasks.values());
+    public List<Subtask> getAllSubtasks() {
+        return getSnapshot().getSubtasks();
+    }
+
+    public TaskSnapshot getSnapshot() {
+        return state.get().toSnapshot();
     }
 
     @Override
-    public Task getTask(Integer id) {
-        Optional<Task> requestedTask = Optional.ofNullable(allTasks.get(id));
+    public Task getTask(int id) {
+        Optional<Task> requestedTask = Optional.ofNullable(state.get().getTasks().get(id));
         requestedTask.ifPresent(history::add);
         return requestedTask.orElseThrow(() -> new TaskNotFoundException("Задача (Task, id: " + id + ") не найдена."));
     }
 
     @Override
-    public EpicTask getEpicTask(Integer id) {
-        Optional<EpicTask> requestedTask = Optional.ofNullable(allEpicTasks.get(id));
+    public EpicTask getEpicTask(int id) {
+        Optional<EpicTask> requestedTask = Optional.ofNullable(state.get().getEpics().get(id));
         requestedTask.ifPresent(history::add);
         return requestedTask.orElseThrow(() -> new TaskNotFoundException("Задача (EpicTask, id: " + id + ") не найдена."));
     }
 
     @Override
-    public Subtask getSubtask(Integer id) {
-        Optional<Subtask> requestedTask = Optional.ofNullable(allSubtasks.get(id));
+    public Subtask getSubtask(int id) {
+        Optional<Subtask> requestedTask = Optional.ofNullable(state.get().getSubtasks().get(id));
         requestedTask.ifPresent(history::add);
         return requestedTask.orElseThrow(() -> new TaskNotFoundException("Задача (Subtask, id: " + id + ") не найдена."));
     }
 
     @Override
     public void deleteAllTasks() {
-        allTasks.keySet().stream()
-                .peek(history::remove)
-                .map(allTasks::get)
-                .forEach(prioritizedTasks::remove);
-
-        allTasks.clear();
+        final List<Task> removed = state.get().getTasks().values();
+        commit(current -> unscheduleAll(current, current.getTasks().values()).clear(TaskType.TASK));
+        clearIndexes(TaskType.TASK);
+        for (Task task : removed) {
+            history.remove(task.getId());
+            publishChange(ChangeType.DELETED, task, null);
+        }
     }
 
     @Override
     public void deleteAllEpicTasks() {
-        allSubtasks.keySet().stream()
-                .peek(history::remove)
-                .map(allSubtasks::get)
-                .forEach(prioritizedTasks::remove);
-
-        allEpicTasks.keySet().forEach(history::remove);
-        allSubtasks.clear();
-        allEpicTasks.clear();
+        final TaskState before = state.get();
+        commit(current -> unscheduleAll(current, current.getSubtasks().values())
+                .clear(TaskType.SUBTASK)
+                .clear(TaskType.EPIC));
+        clearRollups();
+        clearIndexes(TaskType.SUBTASK);
+        clearIndexes(TaskType.EPIC);
+        for (Subtask subtask : before.getSubtasks().values()) {
+            history.remove(subtask.getId());
+            publishChange(ChangeType.DELETED, subtask, null);
+        }
+        for (EpicTask epic : before.getEpics().values()) {
+            history.remove(epic.getId());
+            publishChange(ChangeType.DELETED, epic, null);
+        }
     }
 
     @Override
     public void deleteAllSubtasks() {
-        allEpicTasks.values().stream()
-                .peek(EpicTask::deleteSubtasks)
-                .map(EpicTask::getId)
-                .forEach(this::updateEpicAttributes);
-
-        allSubtasks.keySet().stream()
-                .peek(history::remove)
-                .map(allSubtasks::get)
-                .forEach(prioritizedTasks::remove);
-
-        allSubtasks.clear();
+        final List<Subtask> removed = state.get().getSubtasks().values();
+        clearRollups();
+        final TaskState updated = commit(current -> {
+            TaskState next = unscheduleAll(current, current.getSubtasks().values()).clear(TaskType.SUBTASK);
+            for (EpicTask epic : current.getEpics().values()) {
+                final EpicTask emptied = new EpicTask(epic);
+                emptied.deleteSubtasks();
+                applyEpicRollup(emptied);
+                next = next.put(emptied);
+            }
+            return next;
+        });
+        updated.getEpics().values().forEach(this::indexTask);
+        clearIndexes(TaskType.SUBTASK);
+        for (Subtask subtask : removed) {
+            history.remove(subtask.getId());
+            publishChange(ChangeType.DELETED, subtask, null);
+        }
     }
 
     @Override
-    public void deleteTask(Integer id) {
-        final Task tempTask = allTasks.get(id);
+    public void deleteTask(int id) {
+        final Task tempTask = state.get().getTasks().get(id);
         if (tempTask == null) {
             throw new TaskNotFoundException("Задача (Task, id: " + id + ") не найдена.");
         }
-        allTasks.remove(id);
+        commit(current -> current.remove(TaskType.TASK, id).unschedule(tempTask));
+        unindexTask(TaskType.TASK, id);
         history.remove(id);
-        prioritizedTasks.remove(tempTask);
+        publishChange(ChangeType.DELETED, tempTask, null);
     }
 
     @Override
-    public void deleteEpicTask(Integer id) {
-        final EpicTask tempEpic = allEpicTasks.get(id);
+    public void deleteEpicTask(int id) {
+        final TaskState before = state.get();
+        final EpicTask tempEpic = before.getEpics().get(id);
         if (tempEpic == null) {
             throw new TaskNotFoundException("Задача (EpicTask, id: " + id + ") не найдена.");
         }
-        history.remove(id);
-
-        tempEpic.getSubtasks().stream()
-                .peek(history::remove)
-                .map(allSubtasks::remove)
-                .forEach(prioritizedTasks::remove);
+        final List<Subtask> removed = new ArrayList<>();
+        for (Integer subtaskId : tempEpic.getSubtasks()) {
+            final Subtask subtask = before.getSubtasks().get(subtaskId);
+            if (subtask != null) {
+                removed.add(subtask);
+            }
+        }
 
-        allEpicTasks.remove(id);
+        commit(current -> {
+            TaskState next = current.remove(TaskType.EPIC, id);
+            for (Subtask subtask : removed) {
+                next = next.remove(TaskType.SUBTASK, subtask.getId()).unschedule(subtask);
+            }
+            return next;
+        });
+        history.remove(id);
+        for (Subtask subtask : removed) {
+            history.remove(subtask.getId());
+            unindexTask(TaskType.SUBTASK, subtask.getId());
+            publishChange(ChangeType.DELETED, subtask, null);
+        }
+        rollupsOf(id).remove(id);
+        unindexTask(TaskType.EPIC, id);
+        publishChange(ChangeType.DELETED, tempEpic, null);
     }
 
     @Override
-    public void deleteSubtask(Integer id) {
-        final Subtask tempSub = allSubtasks.get(id);
+    public void deleteSubtask(int id) {
+        final Subtask tempSub = state.get().getSubtasks().get(id);
         if (tempSub == null) {
             throw new TaskNotFoundException("Задача (Subtask, id: " + id + ") не найдена.");
         }
-        final EpicTask EpicOwner = allEpicTasks.get(tempSub.getEpicId());
-        prioritizedTasks.remove(tempSub);
+        final int epicId = tempSub.getEpicId();
+        removeSubtaskFromEpicRollup(tempSub);
+        final TaskState updated = commit(current -> current.remove(TaskType.SUBTASK, id).unschedule(tempSub)
+                .put(withoutSubtask(current.getEpics().get(epicId), id)));
         history.remove(id);
-        EpicOwner.removeLinkedSubtask(id);
-        updateEpicAttributes(EpicOwner.getId());
-        allSubtasks.remove(id);
+        unindexTask(TaskType.SUBTASK, id);
+        indexTask(updated.getEpics().get(epicId));
+        publishChange(ChangeType.DELETED, tempSub, null);
     }
 
     @Override
-    public ArrayList<Subtask> getSubtasksOfEpic(Integer id) {
-        return (ArrayList<Subtask>) allEpicTasks.get(id).getSubtasks().stream()
-                .map(allSubtasks::get)
+    public ArrayList<Subtask> getSubtasksOfEpic(int id) {
+        final TaskState current = state.get();
+        return (ArrayList<Subtask>) current.getEpics().get(id).getSubtasks().stream()
+                .map(current.getSubtasks()::get)
                 .collect(Collectors.toList());
     }
 
     @Override
     public void updateTask(Task task) {
-        if (isTimeIntervalBooked(task, getPrioritizedTasks())) {
+        if (isTimeIntervalBooked(task)) {
             throw new InvalidReceivedTimeException("Данное время занято.");
         }
-        if (allTasks.containsKey(task.getId())) {
-            prioritizedTasks.remove(allTasks.get(task.getId()));
-            allTasks.put(task.getId(), task);
-            addTaskToPrioritizedTasks(task);
+        final Task oldTask = task.getId() == null ? null : state.get().getTasks().get(task.getId());
+        if (oldTask != null) {
+            commit(task, current -> current.unschedule(oldTask).put(task).schedule(task));
+            indexTask(task);
+            publishChange(ChangeType.UPDATED, oldTask, task);
         }
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
-        if (isTimeIntervalBooked(subtask, getPrioritizedTasks())) {
+        if (isTimeIntervalBooked(subtask)) {
             throw new InvalidReceivedTimeException("Данное время занято.");
         }
-        if (allSubtasks.containsKey(subtask.getId())) {
-            Integer epicId = subtask.getEpicId();
-            allSubtasks.put(subtask.getId(), subtask);
-            updateEpicTaskStatus(epicId);
-            prioritizedTasks.remove(allSubtasks.get(subtask.getId()));
-            addTaskToPrioritizedTasks(subtask);
-            updateEpicAttributes(epicId);
+        final Subtask oldSubtask = subtask.getId() == null ? null : state.get().getSubtasks().get(subtask.getId());
+        if (oldSubtask != null) {
+            final int id = subtask.getId();
+            final int epicId = subtask.getEpicId();
+            final int oldEpicId = oldSubtask.getEpicId();
+            if (!state.get().getEpics().containsKey(epicId)) {
+                throw new TaskNotFoundException("Задача (EpicTask, id: " + epicId + ") не найдена.");
+            }
+            removeSubtaskFromEpicRollup(oldSubtask);
+            addSubtaskToEpicRollup(subtask);
+            final TaskState updated;
+            try {
+                updated = commit(subtask, current -> {
+                    final TaskState next = current.unschedule(oldSubtask).put(subtask).schedule(subtask);
+                    if (oldEpicId == epicId) {
+                        return next.put(rolledUp(next.getEpics().get(epicId)));
+                    }
+                    return next.put(withoutSubtask(next.getEpics().get(oldEpicId), id))
+                            .put(withSubtask(next.getEpics().get(epicId), id));
+                });
+            } catch (RuntimeException e) {
+                removeSubtaskFromEpicRollup(subtask);
+                addSubtaskToEpicRollup(oldSubtask);
+                throw e;
+            }
+            indexTask(subtask);
+            indexTask(updated.getEpics().get(epicId));
+            if (oldEpicId != epicId) {
+                indexTask(updated.getEpics().get(oldEpicId));
+            }
+            publishChange(ChangeType.UPDATED, oldSubtask, subtask);
         }
     }
 
     @Override
     public void updateEpicTask(EpicTask newEpictask) {
-        if (allEpicTasks.containsKey(newEpictask.getId())) {
-            EpicTask currEpicTask = allEpicTasks.get(newEpictask.getId());
-            currEpicTask.setTitle(newEpictask.getTitle());
-            currEpicTask.setDescription(newEpictask.getDescription());
+        final EpicTask currEpicTask = newEpictask.getId() == null
+                ? null
+                : state.get().getEpics().get(newEpictask.getId());
+        if (currEpicTask != null) {
+            final EpicTask updatedEpicTask = new EpicTask(currEpicTask);
+            updatedEpicTask.setTitle(newEpictask.getTitle());
+            updatedEpicTask.setDescription(newEpictask.getDescription());
+            commit(current -> current.put(updatedEpicTask));
+            indexTask(updatedEpicTask);
+            publishChange(ChangeType.UPDATED, currEpicTask, updatedEpicTask);
+        }
+    }
+
+    @Override
+    public void applyBatch(List<Task> batch) {
+        validateBatch(batch);
+        final TaskState before = state.get();
+        final IntObjectHashMap<EpicTask> touchedEpics = new IntObjectHashMap<>();
+        final List<UnaryOperator<TaskState>> changes = new ArrayList<>();
+        final List<Runnable> notifications = new ArrayList<>();
+        for (Task task : batch) {
+            if (task.getType() == TaskType.EPIC) {
+                applyBatchEpic((EpicTask) task, before, touchedEpics, notifications);
+            }
+        }
+        for (Task task : batch) {
+            switch (task.getType()) {
+                case TASK -> applyBatchTask(task, before, changes, notifications);
+                case SUBTASK -> applyBatchSubtask((Subtask) task, before, touchedEpics, changes, notifications);
+                case EPIC -> {
+                }
+            }
+        }
+        touchedEpics.forEachValue(epic -> {
+            applyEpicRollup(epic);
+            changes.add(current -> current.put(epic));
+            notifications.add(() -> indexTask(epic));
+        });
+        commit(current -> {
+            TaskState next = current;
+            for (UnaryOperator<TaskState> change : changes) {
+                next = change.apply(next);
+            }
+            return next;
+        });
+        notifications.forEach(Runnable::run);
+    }
+
+    void validateBatch(List<Task> batch) {
+        if (batch == null || batch.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Пакет не должен содержать пустых задач.");
+        }
+        final TaskState current = state.get();
+        final IntOrderedSet batchIds = new IntOrderedSet();
+        final IntOrderedSet batchEpicIds = new IntOrderedSet();
+        final List<Task> timedTasks = new ArrayList<>();
+        for (Task task : batch) {
+            final Integer id = task.getId();
+            if (id != null) {
+                if (!batchIds.add(id)) {
+                    throw new IllegalArgumentException("Задача с id " + id + " встречается в пакете повторно.");
+                }
+                for (TaskType type : TaskType.values()) {
+                    if (type != task.getType() && current.find(type, id) != null) {
+                        throw new IllegalArgumentException("Задача с id " + id + " уже существует с другим типом.");
+                    }
+                }
+                if (task.getType() == TaskType.EPIC) {
+                    batchEpicIds.add(id);
+                }
+            }
+            if (task.getType() != TaskType.EPIC && isPossibleToPrioritizeByTime(task)) {
+                timedTasks.add(task);
+            }
+        }
+        for (Task task : batch) {
+            if (task.getType() == TaskType.SUBTASK) {
+                final Integer epicId = ((Subtask) task).getEpicId();
+                if (epicId == null || !current.getEpics().containsKey(epicId) && !batchEpicIds.contains(epicId)) {
+                    throw new TaskNotFoundException("Задача (EpicTask, id: " + epicId + ") не найдена.");
+                }
+            }
+        }
+
+        timedTasks.sort(Comparator.comparing(Task::getStartTime));
+        LocalDateTime latestEnd = null;
+        for (Task task : timedTasks) {
+            if (latestEnd != null && latestEnd.isAfter(task.getStartTime())
+                    || current.getSchedule().hasConflict(task)) {
+                throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+            }
+            final LocalDateTime end = task.getEndTime() == null ? task.getStartTime() : task.getEndTime();
+            if (latestEnd == null || end.isAfter(latestEnd)) {
+                latestEnd = end;
+            }
         }
     }
 
+    private void applyBatchEpic(EpicTask epic, TaskState before, IntObjectHashMap<EpicTask> touchedEpics,
+                                List<Runnable> notifications) {
+        final EpicTask current = epic.getId() == null ? null : before.getEpics().get(epic.getId());
+        if (current != null) {
+            final EpicTask updated = new EpicTask(current);
+            updated.setTitle(epic.getTitle());
+            updated.setDescription(epic.getDescription());
+            touchedEpics.put(updated.getId(), updated);
+            final EpicTask published = new EpicTask(updated);
+            notifications.add(() -> publishChange(ChangeType.UPDATED, current, published));
+            return;
+        }
+        if (epic.getId() == null) {
+            epic.setId(generateId());
+        }
+        final EpicTask created = new EpicTask(epic);
+        touchedEpics.put(created.getId(), created);
+        final EpicTask published = new EpicTask(created);
+        notifications.add(() -> publishChange(ChangeType.CREATED, null, published));
+    }
+
+    private void applyBatchTask(Task task, TaskState before, List<UnaryOperator<TaskState>> changes,
+                                List<Runnable> notifications) {
+        if (task.getId() == null) {
+            task.setId(generateId());
+        }
+        final Task old = before.getTasks().get(task.getId());
+        changes.add(current -> (old == null ? current : current.unschedule(old)).put(task).schedule(task));
+        notifications.add(() -> {
+            indexTask(task);
+            publishChange(old == null ? ChangeType.CREATED : ChangeType.UPDATED, old, task);
+        });
+    }
+
+    private void applyBatchSubtask(Subtask subtask, TaskState before, IntObjectHashMap<EpicTask> touchedEpics,
+                                   List<UnaryOperator<TaskState>> changes, List<Runnable> notifications) {
+        if (subtask.getId() == null) {
+            subtask.setId(generateId());
+        }
+        final int id = subtask.getId();
+        final Subtask old = before.getSubtasks().get(id);
+        if (old != null) {
+            removeSubtaskFromEpicRollup(old);
+            if (!old.getEpicId().equals(subtask.getEpicId())) {
+                touchedEpic(old.getEpicId(), before, touchedEpics).removeLinkedSubtask(id);
+            }
+        }
+        touchedEpic(subtask.getEpicId(), before, touchedEpics).addSubtask(id);
+        addSubtaskToEpicRollup(subtask);
+        changes.add(current -> (old == null ? current : current.unschedule(old)).put(subtask).schedule(subtask));
+        notifications.add(() -> {
+            indexTask(subtask);
+            publishChange(old == null ? ChangeType.CREATED : ChangeType.UPDATED, old, subtask);
+        });
+    }
+
+    private static EpicTask touchedEpic(int id, TaskState before, IntObjectHashMap<EpicTask> touchedEpics) {
+        EpicTask epic = touchedEpics.get(id);
+        if (epic == null) {
+            epic = new EpicTask(before.getEpics().get(id));
+            touchedEpics.put(id, epic);
+        }
+        return epic;
+    }
+
     @Override
     public void updateEpicTaskStatus(Integer id) {
-        EpicTask epictask = allEpicTasks.get(id);
-        if (epictask != null) {
-            ArrayList<Subtask> subtasksOfEpic = getSubtasksOfEpic(id);
-            int subtasksOfEpicSize = subtasksOfEpic.size();
-            int newSubtaskCounter = 0;
-            int doneSubtaskCounter = 0;
-            if (subtasksOfEpicSize == 0) {
-                epictask.setStatus(TaskStatus.NEW);
-            } else {
-                for (Subtask subtask : subtasksOfEpic) {
-                    if (subtask.getStatus() == TaskStatus.NEW) {
-                        newSubtaskCounter++;
-                    } else if (subtask.getStatus() == TaskStatus.DONE) {
-                        doneSubtaskCounter++;
+        if (id != null) {
+            updateEpicAttributes(id);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return getSnapshot().getPrioritizedTasks();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return state.get().getSchedule().findOverlapping(from, to);
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(LocalDateTime earliest, Duration duration, int count) {
+        return state.get().getSchedule().findFreeSlots(earliest, duration, count);
+    }
+
+    @Override
+    public List<Task> getTasksPage(Integer afterId, int limit) {
+        return getSnapshot().getTasksPage(afterId, limit);
+    }
+
+    @Override
+    public List<EpicTask> getEpicTasksPage(Integer afterId, int limit) {
+        return getSnapshot().getEpicsPage(afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(Integer afterId, int limit) {
+        return getSnapshot().getSubtasksPage(afterId, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(LocalDateTime after, int limit) {
+        return getSnapshot().getPrioritizedTasksPage(after, limit);
+    }
+
+    @Override
+    public List<Task> findTasks(TaskType type, TaskStatus status, Integer epicId) {
+        final TaskState current = state.get();
+        final List<Task> found = new ArrayList<>();
+        if (epicId != null) {
+            if (type == null || type == TaskType.SUBTASK) {
+                collectSubtasksOfEpic(current, found, epicId, status);
+            }
+        } else {
+            final TaskType[] types = type == null ? TaskType.values() : new TaskType[]{type};
+            final TaskStatus[] statuses = status == null ? TaskStatus.values() : new TaskStatus[]{status};
+            for (TaskType indexedType : types) {
+                for (TaskStatus indexedStatus : statuses) {
+                    for (int id : statusIndex.getIds(indexedType, indexedStatus)) {
+                        final Task task = current.find(indexedType, id);
+                        if (task != null) {
+                            found.add(task);
+                        }
                     }
                 }
-                if (subtasksOfEpicSize == newSubtaskCounter) {
-                    epictask.setStatus(TaskStatus.NEW);
-                } else if (subtasksOfEpicSize == doneSubtaskCounter) {
-                    epictask.setStatus(TaskStatus.DONE);
-                } else {
-                    epictask.setStatus(TaskStatus.IN_PROGRESS);
+            }
+        }
+        found.sort(Comparator.comparing(Task::getId));
+        return found;
+    }
+
+    private void collectSubtasksOfEpic(TaskState current, List<Task> found, int epicId, TaskStatus status) {
+        final EpicTask epic = current.getEpics().get(epicId);
+        if (epic == null) {
+            return;
+        }
+        final List<Integer> subtaskIds = epic.getSubtasks();
+        if (status == null || subtaskIds.size() <= statusIndex.count(TaskType.SUBTASK, status)) {
+            for (Integer id : subtaskIds) {
+                final Subtask subtask = current.getSubtasks().get(id);
+                if (subtask != null && (status == null || statusIndex.getStatus(TaskType.SUBTASK, id) == status)) {
+                    found.add(subtask);
+                }
+            }
+        } else {
+            for (int id : statusIndex.getIds(TaskType.SUBTASK, status)) {
+                final Subtask subtask = current.getSubtasks().get(id);
+                if (subtask != null && subtask.getEpicId() == epicId) {
+                    found.add(subtask);
                 }
             }
         }
     }
 
+    Task findStoredTask(TaskType type, int id) {
+        return state.get().find(type, id);
+    }
+
+    @Override
+    public List<Task> searchTasks(String query, int limit) {
+        final TaskState current = state.get();
+        final List<Task> found = new ArrayList<>();
+        for (SearchIndex.Match match : searchIndex.search(query, limit)) {
+            final Task task = current.find(match.getType(), match.getId());
+            if (task != null) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long getLastChangeSequence() {
+        return changeFeed.getLastSequence();
+    }
+
+    @Override
+    public List<TaskChangeEvent> getChangesSince(long sequence, int limit) {
+        return changeFeed.readSince(sequence, limit);
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener, long fromSequence) {
+        changeFeed.subscribe(listener, fromSequence);
+    }
+
     @Override
-    public ArrayList<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+    public void removeChangeListener(TaskChangeListener listener) {
+        changeFeed.unsubscribe(listener);
+    }
+
+    protected TaskState commit(UnaryOperator<TaskState> change) {
+        return state.updateAndGet(change);
+    }
+
+    protected TaskState commit(Task scheduled, UnaryOperator<TaskState> change) {
+        return commit(change);
+    }
+
+    protected void publishChange(ChangeType changeType, Task before, Task after) {
+        changeFeed.publish(changeType, before, after);
+    }
+
+    protected void indexTask(Task task) {
+        statusIndex.put(task.getType(), task.getId(), task.getStatus());
+        searchIndex.put(task.getType(), task.getId(), task.getTitle(), task.getDescription());
+    }
+
+    protected void unindexTask(TaskType type, int id) {
+        statusIndex.remove(type, id);
+        searchIndex.remove(type, id);
+    }
+
+    protected void clearIndexes(TaskType type) {
+        statusIndex.clear(type);
+        searchIndex.clear(type);
     }
 
     private boolean isPossibleToPrioritizeByTime(Task task) {
         return task != null && task.getStartTime() != null;
     }
 
-    protected void addTaskToPrioritizedTasks(Task task) {
-        if (isPossibleToPrioritizeByTime(task)) {
-            prioritizedTasks.add(task);
+    protected static TaskState unscheduleAll(TaskState current, List<? extends Task> tasks) {
+        TaskState next = current;
+        for (Task task : tasks) {
+            next = next.unschedule(task);
+        }
+        return next;
+    }
+
+    protected void addSubtaskToEpicRollup(Subtask subtask) {
+        rollupsOf(subtask.getEpicId()).computeIfAbsent(subtask.getEpicId(), id -> new EpicRollup()).add(subtask);
+    }
+
+    protected void removeSubtaskFromEpicRollup(Subtask subtask) {
+        final IntObjectHashMap<EpicRollup> rollups = rollupsOf(subtask.getEpicId());
+        final EpicRollup rollup = rollups.get(subtask.getEpicId());
+        if (rollup != null) {
+            rollup.remove(subtask.getId());
+            if (rollup.isEmpty()) {
+                rollups.remove(subtask.getEpicId());
+            }
         }
     }
 
-    private void updateEpicAttributes(int id) {
-        final EpicTask epic = allEpicTasks.get(id);
-        final List<Integer> idList = epic.getSubtasks();
-        LocalDateTime earliestStartTime;
-        LocalDateTime latestEndTime;
+    protected IntObjectHashMap<EpicRollup> rollupsOf(int epicId) {
+        return epicRollups;
+    }
 
-            List<Task> timeFrontiers = prioritizedTasks.stream()
-                .filter(Task -> idList.contains(Task.getId()))
-                .toList();
+    protected void clearRollups() {
+        epicRollups.clear();
+    }
 
-        if (timeFrontiers.isEmpty()) {
-            earliestStartTime = null;
-            latestEndTime = null;
+    protected EpicTask withSubtask(EpicTask epic, int subtaskId) {
+        final EpicTask copy = new EpicTask(epic);
+        copy.addSubtask(subtaskId);
+        applyEpicRollup(copy);
+        return copy;
+    }
+
+    protected EpicTask withoutSubtask(EpicTask epic, int subtaskId) {
+        final EpicTask copy = new EpicTask(epic);
+        copy.removeLinkedSubtask(subtaskId);
+        applyEpicRollup(copy);
+        return copy;
+    }
+
+    protected EpicTask rolledUp(EpicTask epic) {
+        final EpicTask copy = new EpicTask(epic);
+        applyEpicRollup(copy);
+        return copy;
+    }
+
+    private void applyEpicRollup(EpicTask epic) {
+        final EpicRollup rollup = rollupsOf(epic.getId()).get(epic.getId());
+        if (rollup == null) {
+            epic.setStatus(TaskStatus.NEW);
             epic.setDuration(null);
+            epic.setStartTime(null);
+            epic.setEndTime(null);
         } else {
-            earliestStartTime = timeFrontiers.getFirst().getStartTime();
-            latestEndTime = timeFrontiers.getLast().getEndTime();
-            epic.setDuration(Duration.between(earliestStartTime, latestEndTime));
+            epic.setStatus(rollup.getStatus());
+            epic.setDuration(rollup.getDuration());
+            epic.setStartTime(rollup.getStartTime());
+            epic.setEndTime(rollup.getEndTime());
         }
-
-        epic.setStartTime(earliestStartTime);
-        epic.setEndTime(latestEndTime);
-        updateEpicTaskStatus(id);
     }
 
-    private boolean isTimeIntervalBooked(Task newTask, List<Task> existedTasks) {
-        if (newTask.getStartTime() == null || newTask.getEndTime() == null) {
-            return false;
+    protected void updateEpicAttributes(int id) {
+        final EpicTask epic = state.get().getEpics().get(id);
+        if (epic != null) {
+            final EpicTask updated = rolledUp(epic);
+            commit(current -> current.put(updated));
+            indexTask(updated);
         }
-        return existedTasks.stream().anyMatch(existedTask -> checkTimeIntersection(newTask, existedTask));
     }
 
-    private boolean checkTimeIntersection(Task newTask, Task existedTask) {
-        return newTask.getStartTime().isBefore(existedTask.getEndTime()) &&
-                newTask.getEndTime().isAfter(existedTask.getStartTime());
+    private boolean isTimeIntervalBooked(Task newTask) {
+        return state.get().getSchedule().hasConflict(newTask);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class JournalCompactor {
+    private static final long MAX_CHECK_PERIOD_MILLIS = 1000;
+    private static final long MIN_CHECK_PERIOD_MILLIS = 10;
+    private final FileBackedTaskManager taskManager;
+    private final TaskJournal journal;
+    private final CompactionPolicy policy;
+    private ScheduledExecutorService executor;
+    private long compactions;
+    private long lastCompactionNanos = System.nanoTime();
+    private LocalDateTime lastCompactionTime;
+    private Duration lastCompactionDuration = Duration.ZERO;
+    private long lastSnapshotBytes;
+
+    public JournalCompactor(FileBackedTaskManager taskManager, TaskJournal journal, CompactionPolicy policy) {
+        this.taskManager = taskManager;
+        this.journal = journal;
+        this.policy = policy;
+    }
+
+    public CompactionPolicy getPolicy() {
+        return policy;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        final long period = Math.max(MIN_CHECK_PERIOD_MILLIS,
+                Math.min(MAX_CHECK_PERIOD_MILLIS, policy.getMaxInterval().toMillis()));
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::compactIfNeeded, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        final ScheduledExecutorService current;
+        synchronized (this) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            current.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isCompactionNeeded() {
+        final Duration sinceLastCompaction;
+        synchronized (this) {
+            sinceLastCompaction = Duration.ofNanos(System.nanoTime() - lastCompactionNanos);
+        }
+        return policy.isExceeded(journal.getActiveBytes(), journal.getActiveRecords(), sinceLastCompaction);
+    }
+
+    private void compactIfNeeded() {
+        try {
+            if (isCompactionNeeded()) {
+                compact();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("FAIL: Ошибка фонового сжатия журнала операций: " + e.getMessage());
+        }
+    }
+
+    public synchronized void compact() {
+        final long start = System.nanoTime();
+        lastSnapshotBytes = taskManager.compact();
+        lastCompactionNanos = System.nanoTime();
+        lastCompactionDuration = Duration.ofNanos(lastCompactionNanos - start);
+        lastCompactionTime = LocalDateTime.now();
+        compactions++;
+    }
+
+    public synchronized CompactionStats getStats() {
+        return new CompactionStats(compactions, lastCompactionTime, lastCompactionDuration, lastSnapshotBytes,
+                journal.getActiveBytes(), journal.getActiveRecords());
+    }
+
+}
@@ -0,0 +1,8 @@
+package service;
+
+public enum JournalOperation {
+    UPSERT,
+    DELETE,
+    DELETE_ALL,
+    BATCH
+}
@@ -0,0 +1,6 @@
+package service;
+
+@FunctionalInterface
+public interface LoadProgressListener {
+    void onProgress(long bytesRead, long totalBytes, long tasksLoaded);
+}
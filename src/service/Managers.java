@@ -7,6 +7,14 @@ public class Managers {
         return new FileBackedTaskManager(new File("resources/backupFile.csv"));
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    public static TaskManager getSharded(int shardCount) {
+        return new ShardedTaskManager(shardCount);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
@@ -0,0 +1,152 @@
+package service;
+
+import exceptions.LoadingFromFileException;
+import model.Task;
+import util.CSVFormatter;
+import util.CSVRecordParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelSnapshotLoader {
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE = 256L * 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private final File snapshotFile;
+    private final ForkJoinPool pool;
+
+    public ParallelSnapshotLoader(File snapshotFile, ForkJoinPool pool) {
+        this.snapshotFile = snapshotFile;
+        this.pool = pool;
+    }
+
+    public List<Task> load() {
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            final long[] boundaries = findChunkBoundaries(channel);
+            return pool.invoke(new ChunkParser(channel, boundaries, 0, boundaries.length - 1));
+        } catch (IOException e) {
+            throw new LoadingFromFileException("Ошибка чтения/загрузки из файла.", e);
+        } catch (UncheckedIOException e) {
+            throw new LoadingFromFileException("Ошибка чтения/загрузки из файла.", e.getCause());
+        }
+    }
+
+    private long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final long chunkSize = Math.min(MAX_CHUNK_SIZE,
+                Math.max(MIN_CHUNK_SIZE, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+        final List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+
+        if (size > chunkSize) {
+            final List<ForkJoinTask<RangeScan>> scans = new ArrayList<>();
+            for (long from = 0; from < size; from += chunkSize) {
+                final long rangeStart = from;
+                final long rangeEnd = Math.min(size, from + chunkSize);
+                scans.add(pool.submit(() -> scanRange(channel, rangeStart, rangeEnd)));
+            }
+            int quoteParity = 0;
+            for (int i = 0; i < scans.size(); i++) {
+                final RangeScan scan = scans.get(i).join();
+                final long newline = scan.firstNewline[quoteParity];
+                if (i > 0 && newline >= 0 && newline + 1 < size) {
+                    boundaries.add(newline + 1);
+                }
+                quoteParity ^= scan.quoteParity;
+            }
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static RangeScan scanRange(FileChannel channel, long start, long end) {
+        final RangeScan scan = new RangeScan();
+        try {
+            final MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            final int length = range.limit();
+            for (int i = 0; i < length; i++) {
+                final byte b = range.get(i);
+                if (b == '"') {
+                    scan.quoteParity ^= 1;
+                } else if (b == '\n' && scan.firstNewline[scan.quoteParity] < 0) {
+                    scan.firstNewline[scan.quoteParity] = start + i;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return scan;
+    }
+
+    private static List<Task> parseChunk(FileChannel channel, long start, long end) {
+        final List<Task> tasks = new ArrayList<>();
+        try {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            final CharBuffer chars = StandardCharsets.UTF_8.decode(buffer);
+            final char[] chunk = chars.array();
+            final int limit = chars.arrayOffset() + chars.limit();
+            final CSVRecordParser record = new CSVRecordParser();
+            int pos = chars.arrayOffset();
+
+            if (start == 0 && pos < limit) {
+                pos = record.parseRecord(chunk, pos, limit, true);
+            }
+
+            while (pos < limit) {
+                pos = record.parseRecord(chunk, pos, limit, true);
+                if (!record.isBlankRecord()) {
+                    tasks.add(CSVFormatter.recordToTask(record, 0));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tasks;
+    }
+
+    @SuppressWarnings("serial")
+    private static class ChunkParser extends RecursiveTask<List<Task>> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ChunkParser(FileChannel channel, long[] boundaries, int fromChunk, int toChunk) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            if (toChunk - fromChunk <= 1) {
+                return parseChunk(channel, boundaries[fromChunk], boundaries[toChunk]);
+            }
+            final int middle = (fromChunk + toChunk) >>> 1;
+            final ChunkParser left = new ChunkParser(channel, boundaries, fromChunk, middle);
+            final ChunkParser right = new ChunkParser(channel, boundaries, middle, toChunk);
+            right.fork();
+            final List<Task> tasks = left.compute();
+            tasks.addAll(right.join());
+            return tasks;
+        }
+    }
+
+    private static class RangeScan {
+        private final long[] firstNewline = {-1, -1};
+        private int quoteParity;
+    }
+
+}
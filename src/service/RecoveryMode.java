@@ -0,0 +1,6 @@
+package service;
+
+public enum RecoveryMode {
+    SEAL_TORN_TAIL,
+    TRUNCATE_TORN_TAIL
+}
@@ -0,0 +1,222 @@
+package service;
+
+import model.TaskType;
+import util.IntObjectHashMap;
+import util.IntOrderedSet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+public class SearchIndex {
+    private static final int TITLE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    public static final Comparator<Match> BY_RELEVANCE = Comparator.comparingInt(Match::getScore).reversed()
+            .thenComparing(Match::getType)
+            .thenComparingInt(Match::getId);
+
+    private final Map<TaskType, Postings> postingsByType = new EnumMap<>(TaskType.class);
+
+    public SearchIndex() {
+        for (TaskType type : TaskType.values()) {
+            postingsByType.put(type, new Postings());
+        }
+    }
+
+    public static Set<String> tokenize(String text) {
+        final Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        final String folded = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i < folded.length(); ) {
+            final int codePoint = folded.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(folded.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            terms.add(folded.substring(start));
+        }
+        return terms;
+    }
+
+    static int score(String[] terms, String title, String description) {
+        final Set<String> titleTerms = tokenize(title);
+        final Set<String> descriptionTerms = tokenize(description);
+        int score = 0;
+        for (String term : terms) {
+            if (titleTerms.contains(term)) {
+                score += TITLE_WEIGHT;
+            } else if (descriptionTerms.contains(term)) {
+                score += DESCRIPTION_WEIGHT;
+            } else {
+                return 0;
+            }
+        }
+        return score;
+    }
+
+    public synchronized void put(TaskType type, int id, String title, String description) {
+        final Postings postings = postingsByType.get(type);
+        postings.remove(id);
+        final Set<String> titleTerms = tokenize(title);
+        final Set<String> descriptionTerms = tokenize(description);
+        descriptionTerms.removeAll(titleTerms);
+        postings.add(id, new IndexedText(titleTerms.toArray(new String[0]), descriptionTerms.toArray(new String[0])));
+    }
+
+    public synchronized void remove(TaskType type, int id) {
+        postingsByType.get(type).remove(id);
+    }
+
+    public synchronized void clear(TaskType type) {
+        postingsByType.put(type, new Postings());
+    }
+
+    public synchronized List<Match> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным.");
+        }
+        final String[] terms = tokenize(query).toArray(new String[0]);
+        if (terms.length == 0) {
+            return new ArrayList<>();
+        }
+        final PriorityQueue<Match> top = new PriorityQueue<>(BY_RELEVANCE.reversed());
+        for (Map.Entry<TaskType, Postings> entry : postingsByType.entrySet()) {
+            entry.getValue().collect(entry.getKey(), terms, limit, top);
+        }
+        final List<Match> matches = new ArrayList<>(top);
+        matches.sort(BY_RELEVANCE);
+        return matches;
+    }
+
+    public static class Match {
+        private final TaskType type;
+        private final int id;
+        private final int score;
+
+        Match(TaskType type, int id, int score) {
+            this.type = type;
+            this.id = id;
+            this.score = score;
+        }
+
+        public TaskType getType() {
+            return type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    private static class IndexedText {
+        private final String[] titleTerms;
+        private final String[] descriptionTerms;
+
+        IndexedText(String[] titleTerms, String[] descriptionTerms) {
+            this.titleTerms = titleTerms;
+            this.descriptionTerms = descriptionTerms;
+        }
+
+        int score(String[] terms) {
+            int score = 0;
+            for (String term : terms) {
+                score += contains(titleTerms, term) ? TITLE_WEIGHT : DESCRIPTION_WEIGHT;
+            }
+            return score;
+        }
+
+        private static boolean contains(String[] indexed, String term) {
+            for (String candidate : indexed) {
+                if (candidate.equals(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Postings {
+        private final Map<String, IntOrderedSet> idsByTerm = new HashMap<>();
+        private final IntObjectHashMap<IndexedText> texts = new IntObjectHashMap<>();
+
+        void add(int id, IndexedText text) {
+            texts.put(id, text);
+            for (String term : text.titleTerms) {
+                idsByTerm.computeIfAbsent(term, key -> new IntOrderedSet()).add(id);
+            }
+            for (String term : text.descriptionTerms) {
+                idsByTerm.computeIfAbsent(term, key -> new IntOrderedSet()).add(id);
+            }
+        }
+
+        void remove(int id) {
+            final IndexedText text = texts.remove(id);
+            if (text == null) {
+                return;
+            }
+            for (String term : text.titleTerms) {
+                removePosting(term, id);
+            }
+            for (String term : text.descriptionTerms) {
+                removePosting(term, id);
+            }
+        }
+
+        private void removePosting(String term, int id) {
+            final IntOrderedSet ids = idsByTerm.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                idsByTerm.remove(term);
+            }
+        }
+
+        void collect(TaskType type, String[] terms, int limit, PriorityQueue<Match> top) {
+            final IntOrderedSet[] lists = new IntOrderedSet[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                lists[i] = idsByTerm.get(terms[i]);
+                if (lists[i] == null) {
+                    return;
+                }
+            }
+            IntOrderedSet smallest = lists[0];
+            for (IntOrderedSet ids : lists) {
+                if (ids.size() < smallest.size()) {
+                    smallest = ids;
+                }
+            }
+            final IntOrderedSet candidates = smallest;
+            candidates.forEachInt(id -> {
+                for (IntOrderedSet ids : lists) {
+                    if (ids != candidates && !ids.contains(id)) {
+                        return;
+                    }
+                }
+                top.add(new Match(type, id, texts.get(id).score(terms)));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+        }
+    }
+
+}
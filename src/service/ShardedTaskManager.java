@@ -0,0 +1,613 @@
+package service;
+
+import exceptions.InvalidReceivedTimeException;
+import exceptions.TaskNotFoundException;
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskChangeEvent;
+import model.TaskStatus;
+import model.TaskType;
+import model.TimeSlot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+public class ShardedTaskManager implements TaskManager {
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+    private static final Comparator<Task> BY_START_TIME = Comparator.comparing(Task::getStartTime);
+
+    private final ConcurrentTaskManager[] shards;
+    private final HistoryManager history = Managers.getDefaultHistory();
+    private final ChangeFeed changeFeed = new ChangeFeed();
+    private final AtomicInteger taskId = new AtomicInteger();
+    private final Map<Integer, Integer> subtaskEpics = new ConcurrentHashMap<>();
+    private final Lock scheduleLock = new ReentrantLock();
+    private volatile TaskSchedule schedule = TaskSchedule.empty();
+    private final Map<Integer, Task> scheduledById = new ConcurrentHashMap<>();
+    private volatile MergedSnapshot snapshot;
+
+    public ShardedTaskManager(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Количество шардов должно быть положительным.");
+        }
+        shards = new ConcurrentTaskManager[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentTaskManager();
+            shards[i].history = history;
+            shards[i].changeFeed = changeFeed;
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    private ConcurrentTaskManager shardOf(int id) {
+        final int hash = id ^ (id >>> 16);
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    private ConcurrentTaskManager shardOfSubtask(int id) {
+        final Integer epicId = subtaskEpics.get(id);
+        if (epicId == null) {
+            throw new TaskNotFoundException("Задача (Subtask, id: " + id + ") не найдена.");
+        }
+        return shardOf(epicId);
+    }
+
+    private void assignId(Task task) {
+        if (task.getId() == null) {
+            task.setId(generateId());
+        }
+    }
+
+    private void checkSchedule(Task task) {
+        if (schedule.hasConflict(task)) {
+            throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+        }
+    }
+
+    private void reschedule(int id, Task task) {
+        unschedule(id);
+        if (task != null && task.getStartTime() != null) {
+            schedule = schedule.add(task);
+            scheduledById.put(id, task);
+        }
+    }
+
+    private void unschedule(int id) {
+        final Task scheduled = scheduledById.remove(id);
+        if (scheduled != null) {
+            schedule = schedule.remove(scheduled);
+        }
+    }
+
+    private void unscheduleAll(TaskType type) {
+        final List<Integer> ids = new ArrayList<>();
+        scheduledById.values().forEach(task -> {
+            if (task.getType() == type) {
+                ids.add(task.getId());
+            }
+        });
+        ids.forEach(this::unschedule);
+    }
+
+    private Task reserve(Task task) {
+        if (task.getStartTime() == null) {
+            return null;
+        }
+        scheduleLock.lock();
+        try {
+            checkSchedule(task);
+            schedule = schedule.add(task);
+            return task;
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void settle(Task reserved, TaskType type, int id) {
+        if (reserved == null && !scheduledById.containsKey(id)) {
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            final Task scheduled = scheduledById.remove(id);
+            if (scheduled != null) {
+                schedule = schedule.remove(scheduled);
+            }
+            if (reserved != null) {
+                schedule = schedule.remove(reserved);
+            }
+            reschedule(id, findStoredTask(type, id));
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void releaseSchedule(int id) {
+        if (!scheduledById.containsKey(id)) {
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            unschedule(id);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return history.getHistory();
+    }
+
+    @Override
+    public Integer getId() {
+        return taskId.get();
+    }
+
+    @Override
+    public Integer generateId() {
+        return taskId.incrementAndGet();
+    }
+
+    @Override
+    public void createTask(Task task) {
+        assignId(task);
+        final Task reserved = reserve(task);
+        try {
+            shardOf(task.getId()).createTask(task);
+        } finally {
+            settle(reserved, TaskType.TASK, task.getId());
+        }
+    }
+
+    @Override
+    public void createSubtask(Subtask subtask) {
+        if (subtask.getEpicId() == null) {
+            throw new TaskNotFoundException("Задача (EpicTask, id: null) не найдена.");
+        }
+        assignId(subtask);
+        final Task reserved = reserve(subtask);
+        try {
+            shardOf(subtask.getEpicId()).createSubtask(subtask);
+            subtaskEpics.put(subtask.getId(), subtask.getEpicId());
+        } finally {
+            settle(reserved, TaskType.SUBTASK, subtask.getId());
+        }
+    }
+
+    @Override
+    public void createEpicTask(EpicTask epictask) {
+        assignId(epictask);
+        shardOf(epictask.getId()).createEpicTask(epictask);
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return getSnapshot().getTasks();
+    }
+
+    @Override
+    public List<EpicTask> getAllEpicTasks() {
+        return getSnapshot().getEpics();
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return getSnapshot().getSubtasks();
+    }
+
+    public TaskSnapshot getSnapshot() {
+        final TaskSnapshot[] parts = new TaskSnapshot[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            parts[i] = shards[i].getSnapshot();
+        }
+        final MergedSnapshot current = snapshot;
+        if (current != null && Arrays.equals(current.parts, parts)) {
+            return current.merged;
+        }
+        final List<TaskSnapshot> sources = Arrays.asList(parts);
+        final TaskSnapshot merged = new TaskSnapshot(
+                Collections.unmodifiableList(merge(sources, TaskSnapshot::getTasks, BY_ID)),
+                Collections.unmodifiableList(merge(sources, TaskSnapshot::getEpics, BY_ID)),
+                Collections.unmodifiableList(merge(sources, TaskSnapshot::getSubtasks, BY_ID)),
+                Collections.unmodifiableList(merge(sources, TaskSnapshot::getPrioritizedTasks, BY_START_TIME)));
+        snapshot = new MergedSnapshot(parts, merged);
+        return merged;
+    }
+
+    @Override
+    public Task getTask(int id) {
+        return shardOf(id).getTask(id);
+    }
+
+    @Override
+    public EpicTask getEpicTask(int id) {
+        return shardOf(id).getEpicTask(id);
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return shardOfSubtask(id).getSubtask(id);
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        scheduleLock.lock();
+        try {
+            Arrays.stream(shards).parallel().forEach(ConcurrentTaskManager::deleteAllTasks);
+            unscheduleAll(TaskType.TASK);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllEpicTasks() {
+        scheduleLock.lock();
+        try {
+            Arrays.stream(shards).parallel().forEach(ConcurrentTaskManager::deleteAllEpicTasks);
+            subtaskEpics.clear();
+            unscheduleAll(TaskType.SUBTASK);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        scheduleLock.lock();
+        try {
+            Arrays.stream(shards).parallel().forEach(ConcurrentTaskManager::deleteAllSubtasks);
+            subtaskEpics.clear();
+            unscheduleAll(TaskType.SUBTASK);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteTask(int id) {
+        shardOf(id).deleteTask(id);
+        releaseSchedule(id);
+    }
+
+    @Override
+    public void deleteEpicTask(int id) {
+        final ConcurrentTaskManager shard = shardOf(id);
+        final List<Task> subtasks = shard.findTasks(TaskType.SUBTASK, null, id);
+        shard.deleteEpicTask(id);
+        for (Task subtask : subtasks) {
+            subtaskEpics.remove(subtask.getId());
+            releaseSchedule(subtask.getId());
+        }
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        shardOfSubtask(id).deleteSubtask(id);
+        subtaskEpics.remove(id);
+        releaseSchedule(id);
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasksOfEpic(int id) {
+        return shardOf(id).getSubtasksOfEpic(id);
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        final ConcurrentTaskManager shard = shardOf(task.getId());
+        final Task reserved = reserve(task);
+        try {
+            shard.updateTask(task);
+        } finally {
+            settle(reserved, TaskType.TASK, task.getId());
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        if (subtask.getId() == null) {
+            return;
+        }
+        final Integer storedEpicId = subtaskEpics.get(subtask.getId());
+        final Task reserved = reserve(subtask);
+        try {
+            if (storedEpicId == null) {
+                return;
+            }
+            if (storedEpicId.equals(subtask.getEpicId())) {
+                shardOf(storedEpicId).updateSubtask(subtask);
+            } else {
+                moveSubtask(storedEpicId, subtask);
+            }
+        } finally {
+            settle(reserved, TaskType.SUBTASK, subtask.getId());
+        }
+    }
+
+    private void moveSubtask(int storedEpicId, Subtask subtask) {
+        if (subtask.getEpicId() == null || findStoredTask(TaskType.EPIC, subtask.getEpicId()) == null) {
+            throw new TaskNotFoundException("Задача (EpicTask, id: " + subtask.getEpicId() + ") не найдена.");
+        }
+        final ConcurrentTaskManager oldShard = shardOf(storedEpicId);
+        final Subtask previous = (Subtask) oldShard.findStoredTask(TaskType.SUBTASK, subtask.getId());
+        oldShard.deleteSubtask(subtask.getId());
+        subtaskEpics.remove(subtask.getId());
+        try {
+            shardOf(subtask.getEpicId()).createSubtask(subtask);
+        } catch (RuntimeException e) {
+            if (previous != null) {
+                oldShard.createSubtask(previous);
+                subtaskEpics.put(previous.getId(), storedEpicId);
+            }
+            throw e;
+        }
+        subtaskEpics.put(subtask.getId(), subtask.getEpicId());
+    }
+
+    @Override
+    public void updateEpicTask(EpicTask newEpictask) {
+        if (newEpictask.getId() != null) {
+            shardOf(newEpictask.getId()).updateEpicTask(newEpictask);
+        }
+    }
+
+    @Override
+    public void updateEpicTaskStatus(Integer id) {
+        if (id != null) {
+            shardOf(id).updateEpicTaskStatus(id);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return getSnapshot().getPrioritizedTasks();
+    }
+
+    @Override
+    public List<Task> getTasksPage(Integer afterId, int limit) {
+        return getSnapshot().getTasksPage(afterId, limit);
+    }
+
+    @Override
+    public List<EpicTask> getEpicTasksPage(Integer afterId, int limit) {
+        return getSnapshot().getEpicsPage(afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksPage(Integer afterId, int limit) {
+        return getSnapshot().getSubtasksPage(afterId, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksPage(LocalDateTime after, int limit) {
+        return getSnapshot().getPrioritizedTasksPage(after, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return merge(shard -> shard.getPrioritizedTasks(from, to), BY_START_TIME);
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(LocalDateTime earliest, Duration duration, int count) {
+        return schedule.findFreeSlots(earliest, duration, count);
+    }
+
+    @Override
+    public List<Task> findTasks(TaskType type, TaskStatus status, Integer epicId) {
+        if (epicId != null) {
+            return shardOf(epicId).findTasks(type, status, epicId);
+        }
+        return merge(shard -> shard.findTasks(type, status, null), BY_ID);
+    }
+
+    @Override
+    public List<Task> searchTasks(String query, int limit) {
+        final List<SearchIndex.Match> matches = Arrays.stream(shards).parallel()
+                .flatMap(shard -> shard.searchIndex.search(query, limit).stream())
+                .sorted(SearchIndex.BY_RELEVANCE)
+                .limit(limit)
+                .toList();
+        final List<Task> found = new ArrayList<>();
+        for (SearchIndex.Match match : matches) {
+            final Task task = findStoredTask(match.getType(), match.getId());
+            if (task != null) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+
+    private Task findStoredTask(TaskType type, int id) {
+        if (type != TaskType.SUBTASK) {
+            return shardOf(id).findStoredTask(type, id);
+        }
+        final Integer epicId = subtaskEpics.get(id);
+        return epicId == null ? null : shardOf(epicId).findStoredTask(type, id);
+    }
+
+    @Override
+    public void applyBatch(List<Task> batch) {
+        if (batch == null || batch.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Пакет не должен содержать пустых задач.");
+        }
+        scheduleLock.lock();
+        try {
+            validateBatch(batch);
+            final Map<ConcurrentTaskManager, List<Task>> byShard = new HashMap<>();
+            final Map<Integer, ConcurrentTaskManager> movedFrom = new HashMap<>();
+            for (Task task : batch) {
+                assignId(task);
+                final int routingId = task.getType() == TaskType.SUBTASK ? ((Subtask) task).getEpicId() : task.getId();
+                final ConcurrentTaskManager shard = shardOf(routingId);
+                if (task.getType() == TaskType.SUBTASK) {
+                    final Integer storedEpicId = subtaskEpics.get(task.getId());
+                    if (storedEpicId != null && shardOf(storedEpicId) != shard) {
+                        movedFrom.put(task.getId(), shardOf(storedEpicId));
+                    }
+                }
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(task);
+            }
+            byShard.forEach(ConcurrentTaskManager::validateBatch);
+            movedFrom.forEach((id, shard) -> shard.deleteSubtask(id));
+            byShard.forEach(ConcurrentTaskManager::applyBatch);
+            for (Task task : batch) {
+                if (task.getType() == TaskType.SUBTASK) {
+                    subtaskEpics.put(task.getId(), ((Subtask) task).getEpicId());
+                }
+                if (task.getType() != TaskType.EPIC) {
+                    reschedule(task.getId(), task);
+                }
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void validateBatch(List<Task> batch) {
+        final Set<Integer> batchIds = new HashSet<>();
+        final Set<Integer> batchEpicIds = new HashSet<>();
+        final List<Task> timedTasks = new ArrayList<>();
+        for (Task task : batch) {
+            final Integer id = task.getId();
+            if (id != null) {
+                if (!batchIds.add(id)) {
+                    throw new IllegalArgumentException("Задача с id " + id + " встречается в пакете повторно.");
+                }
+                for (TaskType type : TaskType.values()) {
+                    if (type != task.getType() && findStoredTask(type, id) != null) {
+                        throw new IllegalArgumentException("Задача с id " + id + " уже существует с другим типом.");
+                    }
+                }
+                if (task.getType() == TaskType.EPIC) {
+                    batchEpicIds.add(id);
+                }
+            }
+            if (task.getType() != TaskType.EPIC && task.getStartTime() != null) {
+                timedTasks.add(task);
+            }
+        }
+        for (Task task : batch) {
+            if (task.getType() == TaskType.SUBTASK) {
+                final Integer epicId = ((Subtask) task).getEpicId();
+                if (epicId == null || !batchEpicIds.contains(epicId)
+                        && findStoredTask(TaskType.EPIC, epicId) == null) {
+                    throw new TaskNotFoundException("Задача (EpicTask, id: " + epicId + ") не найдена.");
+                }
+            }
+        }
+
+        timedTasks.sort(BY_START_TIME);
+        LocalDateTime latestEnd = null;
+        for (Task task : timedTasks) {
+            if (latestEnd != null && latestEnd.isAfter(task.getStartTime())) {
+                throw new InvalidReceivedTimeException("Данное время занято другой задачей.");
+            }
+            checkSchedule(task);
+            final LocalDateTime end = task.getEndTime() == null ? task.getStartTime() : task.getEndTime();
+            if (latestEnd == null || end.isAfter(latestEnd)) {
+                latestEnd = end;
+            }
+        }
+    }
+
+    @Override
+    public long getLastChangeSequence() {
+        return changeFeed.getLastSequence();
+    }
+
+    @Override
+    public List<TaskChangeEvent> getChangesSince(long sequence, int limit) {
+        return changeFeed.readSince(sequence, limit);
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener, long fromSequence) {
+        changeFeed.subscribe(listener, fromSequence);
+    }
+
+    @Override
+    public void removeChangeListener(TaskChangeListener listener) {
+        changeFeed.unsubscribe(listener);
+    }
+
+    private <T extends Task> ArrayList<T> merge(Function<ConcurrentTaskManager, List<T>> query,
+                                                Comparator<Task> order) {
+        return merge(Arrays.asList(shards), query, order);
+    }
+
+    private static <S, T extends Task> ArrayList<T> merge(List<S> sources, Function<S, List<T>> query,
+                                                          Comparator<Task> order) {
+        final List<List<T>> parts = sources.parallelStream().map(query).toList();
+        int size = 0;
+        final PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (List<T> part : parts) {
+            size += part.size();
+            if (!part.isEmpty()) {
+                heads.add(new Cursor<>(part));
+            }
+        }
+        final ArrayList<T> merged = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            final Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static class MergedSnapshot {
+        private final TaskSnapshot[] parts;
+        private final TaskSnapshot merged;
+
+        MergedSnapshot(TaskSnapshot[] parts, TaskSnapshot merged) {
+            this.parts = parts;
+            this.merged = merged;
+        }
+    }
+
+    private static class Cursor<T> {
+        private final List<T> part;
+        private int position;
+
+        Cursor(List<T> part) {
+            this.part = part;
+        }
+
+        T head() {
+            return part.get(position);
+        }
+
+        boolean advance() {
+            return ++position < part.size();
+        }
+    }
+
+}
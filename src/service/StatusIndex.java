@@ -0,0 +1,65 @@
+package service;
+
+import model.TaskStatus;
+import model.TaskType;
+import util.IntObjectHashMap;
+import util.IntOrderedSet;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class StatusIndex {
+    private final Map<TaskType, IntObjectHashMap<TaskStatus>> indexedStatuses = new EnumMap<>(TaskType.class);
+    private final Map<TaskType, Map<TaskStatus, IntOrderedSet>> idsByStatus = new EnumMap<>(TaskType.class);
+
+    public StatusIndex() {
+        for (TaskType type : TaskType.values()) {
+            indexedStatuses.put(type, new IntObjectHashMap<>());
+            final Map<TaskStatus, IntOrderedSet> byStatus = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new IntOrderedSet());
+            }
+            idsByStatus.put(type, byStatus);
+        }
+    }
+
+    public synchronized void put(TaskType type, int id, TaskStatus status) {
+        final TaskStatus previous = status == null
+                ? indexedStatuses.get(type).remove(id)
+                : indexedStatuses.get(type).put(id, status);
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            idsByStatus.get(type).get(previous).remove(id);
+        }
+        if (status != null) {
+            idsByStatus.get(type).get(status).add(id);
+        }
+    }
+
+    public synchronized void remove(TaskType type, int id) {
+        final TaskStatus previous = indexedStatuses.get(type).remove(id);
+        if (previous != null) {
+            idsByStatus.get(type).get(previous).remove(id);
+        }
+    }
+
+    public synchronized void clear(TaskType type) {
+        indexedStatuses.get(type).clear();
+        idsByStatus.get(type).values().forEach(IntOrderedSet::clear);
+    }
+
+    public synchronized TaskStatus getStatus(TaskType type, int id) {
+        return indexedStatuses.get(type).get(id);
+    }
+
+    public synchronized int count(TaskType type, TaskStatus status) {
+        return idsByStatus.get(type).get(status).size();
+    }
+
+    public synchronized int[] getIds(TaskType type, TaskStatus status) {
+        return idsByStatus.get(type).get(status).toIntArray();
+    }
+
+}
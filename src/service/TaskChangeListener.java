@@ -0,0 +1,10 @@
+package service;
+
+import model.TaskChangeEvent;
+
+public interface TaskChangeListener {
+    void onChange(TaskChangeEvent event);
+
+    default void onEventsLost(long fromSequence, long toSequence) {
+    }
+}
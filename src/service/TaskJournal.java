@@ -0,0 +1,463 @@
+package service;
+
+import exceptions.LoadingFromFileException;
+import exceptions.SavingToFileException;
+import model.Task;
+import model.TaskType;
+import util.CSVFormatter;
+import util.CSVRecordParser;
+import util.Compression;
+import util.CompressionStreams;
+import util.FramedRecordReader;
+import util.RecordFraming;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class TaskJournal {
+    private static final String SEP = ",";
+    private static final JournalOperation[] OPERATIONS = JournalOperation.values();
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_BATCH_SIZE = 4096;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private final File journalFile;
+    private final BlockingQueue<PendingRecord> pendingRecords = new LinkedBlockingQueue<>();
+    private final Object channelLock = new Object();
+    private FileChannel channel;
+    private OutputStream compressedOut;
+    private volatile Compression compression = Compression.NONE;
+    private Thread writerThread;
+    private volatile boolean running;
+    private long committedBatches;
+    private long committedRecords;
+    private long segmentNum;
+    private long activeBytes;
+    private long activeRecords;
+
+    public TaskJournal(File journalFile) {
+        this.journalFile = journalFile;
+        this.activeBytes = journalFile.length();
+        this.segmentNum = getSealedSegments().stream()
+                .mapToLong(this::getSegmentNum)
+                .max()
+                .orElse(0);
+    }
+
+    public File getJournalFile() {
+        return journalFile;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public synchronized void setCompression(Compression compression) {
+        if (this.compression == compression) {
+            return;
+        }
+        sync();
+        synchronized (channelLock) {
+            closeChannel();
+            sealActiveSegment();
+            this.compression = compression;
+        }
+        activeBytes = 0;
+        activeRecords = 0;
+    }
+
+    public synchronized long getActiveBytes() {
+        return activeBytes;
+    }
+
+    public synchronized long getActiveRecords() {
+        return activeRecords;
+    }
+
+    public long getCommittedBatches() {
+        synchronized (channelLock) {
+            return committedBatches;
+        }
+    }
+
+    public long getCommittedRecords() {
+        synchronized (channelLock) {
+            return committedRecords;
+        }
+    }
+
+    public CompletableFuture<Void> appendUpsert(Task task) {
+        return appendUpsert(task, Durability.SYNC);
+    }
+
+    public CompletableFuture<Void> appendUpsert(Task task, Durability durability) {
+        return append(JournalOperation.UPSERT + SEP + CSVFormatter.taskToString(task), durability);
+    }
+
+    public CompletableFuture<Void> appendDelete(TaskType type, int id) {
+        return appendDelete(type, id, Durability.SYNC);
+    }
+
+    public CompletableFuture<Void> appendDelete(TaskType type, int id, Durability durability) {
+        return append(JournalOperation.DELETE + SEP + type + SEP + id, durability);
+    }
+
+    public CompletableFuture<Void> appendDeleteAll(TaskType type) {
+        return appendDeleteAll(type, Durability.SYNC);
+    }
+
+    public CompletableFuture<Void> appendDeleteAll(TaskType type, Durability durability) {
+        return append(JournalOperation.DELETE_ALL + SEP + type, durability);
+    }
+
+    public CompletableFuture<Void> appendUpserts(List<? extends Task> tasks) {
+        return appendUpserts(tasks, Durability.SYNC);
+    }
+
+    public synchronized CompletableFuture<Void> appendUpserts(List<? extends Task> tasks, Durability durability) {
+        if (tasks.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        records.writeBytes((JournalOperation.BATCH + SEP + tasks.size()).getBytes(StandardCharsets.UTF_8));
+        records.writeBytes(LINE_SEPARATOR);
+        for (Task task : tasks) {
+            final String record = JournalOperation.UPSERT + SEP + CSVFormatter.taskToString(task);
+            records.writeBytes(RecordFraming.frame(record.getBytes(StandardCharsets.UTF_8)));
+            records.writeBytes(LINE_SEPARATOR);
+        }
+        final byte[] bytes = RecordFraming.frame(records.toByteArray());
+        activeBytes += bytes.length + LINE_SEPARATOR.length;
+        activeRecords += tasks.size();
+        return enqueue(bytes, tasks.size(), durability);
+    }
+
+    private synchronized CompletableFuture<Void> append(String record, Durability durability) {
+        final byte[] bytes = RecordFraming.frame(record.getBytes(StandardCharsets.UTF_8));
+        activeBytes += bytes.length + LINE_SEPARATOR.length;
+        activeRecords++;
+        return enqueue(bytes, 1, durability);
+    }
+
+    private synchronized CompletableFuture<Void> enqueue(byte[] bytes, int records, Durability durability) {
+        if (writerThread == null) {
+            running = true;
+            writerThread = new Thread(this::writeLoop, "task-journal-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+        final PendingRecord pending = new PendingRecord(bytes, records, durability);
+        pendingRecords.add(pending);
+        return pending.commit;
+    }
+
+    public void sync() {
+        awaitCommit(enqueue(null, 0, Durability.SYNC));
+    }
+
+    public static void awaitCommit(CompletableFuture<Void> commit) {
+        try {
+            commit.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new SavingToFileException("Ошибка записи в журнал операций.", e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        final List<PendingRecord> batch = new ArrayList<>();
+        while (running || !pendingRecords.isEmpty()) {
+            try {
+                final PendingRecord first = pendingRecords.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pendingRecords.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingRecord> batch) {
+        final List<ByteBuffer> buffers = new ArrayList<>(batch.size() * 2);
+        int records = 0;
+        boolean forced = false;
+        for (PendingRecord pending : batch) {
+            if (pending.bytes != null) {
+                buffers.add(ByteBuffer.wrap(pending.bytes));
+                buffers.add(ByteBuffer.wrap(LINE_SEPARATOR));
+                records += pending.records;
+            }
+            forced |= pending.durability != Durability.NONE;
+        }
+
+        try {
+            synchronized (channelLock) {
+                if (!buffers.isEmpty()) {
+                    if (channel == null) {
+                        openChannel();
+                    }
+                    final ByteBuffer[] data = buffers.toArray(new ByteBuffer[0]);
+                    if (compressedOut != null) {
+                        for (ByteBuffer buffer : data) {
+                            compressedOut.write(buffer.array());
+                        }
+                        compressedOut.flush();
+                    } else {
+                        while (data[data.length - 1].hasRemaining()) {
+                            channel.write(data);
+                        }
+                    }
+                    if (forced) {
+                        channel.force(false);
+                    }
+                    committedBatches++;
+                    committedRecords += records;
+                }
+            }
+            batch.forEach(pending -> pending.commit.complete(null));
+        } catch (IOException e) {
+            final SavingToFileException failure = new SavingToFileException("Ошибка записи в журнал операций.", e);
+            batch.forEach(pending -> pending.commit.completeExceptionally(failure));
+        }
+    }
+
+    public synchronized List<File> rotate() {
+        sync();
+        synchronized (channelLock) {
+            closeChannel();
+            sealActiveSegment();
+        }
+        activeBytes = 0;
+        activeRecords = 0;
+        return getSealedSegments();
+    }
+
+    private void openChannel() throws IOException {
+        if (compression != Compression.NONE || detectCompression(journalFile) != Compression.NONE) {
+            sealActiveSegment();
+        }
+        channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (compression != Compression.NONE) {
+            compressedOut = CompressionStreams.wrap(Channels.newOutputStream(channel), compression);
+        }
+    }
+
+    private static Compression detectCompression(File segment) {
+        if (!segment.exists()) {
+            return Compression.NONE;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(segment))) {
+            return CompressionStreams.detect(in);
+        } catch (IOException e) {
+            throw new LoadingFromFileException("Ошибка чтения журнала операций.", e);
+        }
+    }
+
+    private void sealActiveSegment() {
+        if (journalFile.exists() && journalFile.length() > 0) {
+            final File sealed = new File(journalFile.getPath() + "." + (++segmentNum));
+            if (!journalFile.renameTo(sealed)) {
+                throw new SavingToFileException("Ошибка ротации журнала операций.", null);
+            }
+        }
+    }
+
+    public void deleteSegments(List<File> segments) {
+        for (File segment : segments) {
+            if (!segment.delete() && segment.exists()) {
+                throw new SavingToFileException("Ошибка удаления сегмента журнала " + segment + ".", null);
+            }
+        }
+    }
+
+    public final List<File> getSealedSegments() {
+        final File dir = journalFile.getAbsoluteFile().getParentFile();
+        final String prefix = journalFile.getName() + ".";
+        final File[] segments = dir.listFiles((d, name) -> name.startsWith(prefix)
+                && name.substring(prefix.length()).chars().allMatch(Character::isDigit)
+                && name.length() > prefix.length());
+        if (segments == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.stream(segments)
+                .sorted(Comparator.comparingLong(this::getSegmentNum))
+                .toList());
+    }
+
+    private long getSegmentNum(File segment) {
+        final String name = segment.getName();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    public void replay(FileBackedTaskManager taskManager) {
+        replay(taskManager, RecoveryMode.SEAL_TORN_TAIL);
+    }
+
+    public synchronized void replay(FileBackedTaskManager taskManager, RecoveryMode recoveryMode) {
+        for (File segment : getSealedSegments()) {
+            replaySegment(segment, taskManager);
+        }
+        final FramedRecordReader reader = replaySegment(journalFile, taskManager);
+        if (reader == null || !reader.isTorn()) {
+            return;
+        }
+
+        synchronized (channelLock) {
+            if (recoveryMode == RecoveryMode.TRUNCATE_TORN_TAIL && detectCompression(journalFile) == Compression.NONE) {
+                truncateActiveSegment(reader.getValidBytes());
+            } else {
+                sealActiveSegment();
+            }
+        }
+        activeBytes = journalFile.length();
+        if (activeBytes == 0) {
+            activeRecords = 0;
+        }
+    }
+
+    private FramedRecordReader replaySegment(File segment, FileBackedTaskManager taskManager) {
+        if (!segment.exists()) {
+            return null;
+        }
+
+        final CSVRecordParser parser = new CSVRecordParser();
+        long records = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(segment));
+             FramedRecordReader reader = new FramedRecordReader(
+                     CompressionStreams.unwrap(in, CompressionStreams.detect(in)))) {
+            byte[] payload;
+            while ((payload = reader.next()) != null) {
+                final char[] chars = new String(payload, StandardCharsets.UTF_8).toCharArray();
+                final int next = parser.parseRecord(chars, 0, chars.length, true);
+                if (parser.getEnum(0, OPERATIONS) == JournalOperation.BATCH) {
+                    records += replayBatch(payload, next, parser.getInt(1), parser, taskManager);
+                } else {
+                    applyRecord(parser, taskManager);
+                    records++;
+                }
+            }
+            if (reader.isTorn()) {
+                System.out.println("FAIL: Сегмент журнала " + segment + " поврежден после записи " + records
+                        + ", восстановлено байт: " + reader.getValidBytes());
+            }
+            if (segment.equals(journalFile)) {
+                activeRecords = records;
+            }
+            return reader;
+        } catch (IOException e) {
+            throw new LoadingFromFileException("Ошибка чтения журнала операций.", e);
+        }
+    }
+
+    private int replayBatch(byte[] payload, int offset, int count, CSVRecordParser parser,
+                            FileBackedTaskManager taskManager) throws IOException {
+        final FramedRecordReader batch = new FramedRecordReader(
+                new ByteArrayInputStream(payload, offset, payload.length - offset));
+        for (int i = 0; i < count; i++) {
+            final byte[] record = batch.next();
+            if (record == null) {
+                throw new LoadingFromFileException("Пакет в журнале операций поврежден.", null);
+            }
+            final char[] chars = new String(record, StandardCharsets.UTF_8).toCharArray();
+            parser.parseRecord(chars, 0, chars.length, true);
+            applyRecord(parser, taskManager);
+        }
+        return count;
+    }
+
+    private void truncateActiveSegment(long validBytes) {
+        try (FileChannel file = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+            file.truncate(validBytes);
+            file.force(true);
+        } catch (IOException e) {
+            throw new SavingToFileException("Ошибка усечения журнала операций.", e);
+        }
+    }
+
+    private void applyRecord(CSVRecordParser record, FileBackedTaskManager taskManager) {
+        switch (record.getEnum(0, OPERATIONS)) {
+            case UPSERT -> taskManager.restoreTask(CSVFormatter.recordToTask(record, 1));
+            case DELETE -> taskManager.restoreDeletion(record.getEnum(1, TYPES), record.getInt(2));
+            case DELETE_ALL -> taskManager.restoreDeletionOfAll(record.getEnum(1, TYPES));
+            case BATCH -> throw new LoadingFromFileException("Вложенный пакет в журнале операций.", null);
+        }
+    }
+
+    public void close() {
+        final Thread writer;
+        synchronized (this) {
+            writer = writerThread;
+            writerThread = null;
+            running = false;
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (channelLock) {
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (compressedOut != null) {
+                compressedOut.close();
+                compressedOut = null;
+            }
+            channel.close();
+            channel = null;
+        } catch (IOException e) {
+            throw new SavingToFileException("Ошибка закрытия журнала операций.", e);
+        }
+    }
+
+    private static class PendingRecord {
+        final byte[] bytes;
+        final int records;
+        final Durability durability;
+        final CompletableFuture<Void> commit = new CompletableFuture<>();
+
+        PendingRecord(byte[] bytes, int records, Durability durability) {
+            this.bytes = bytes;
+            this.records = records;
+            this.durability = durability;
+        }
+    }
+
+}
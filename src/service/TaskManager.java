@@ -1,9 +1,16 @@
 package service;
 
+import exceptions.TaskNotFoundException;
 import model.EpicTask;
 import model.Subtask;
 import model.Task;
+import model.TaskChangeEvent;
+import model.TaskStatus;
+import model.TaskType;
+import model.TimeSlot;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,17 +28,29 @@ public interface TaskManager {
 
     void createEpicTask(EpicTask epictask);
 
-    ArrayList<Task> getAllTasks();
+    List<Task> getAllTasks();
 
-    ArrayList<EpicTask> getAllEpicTasks();
+    List<EpicTask> getAllEpicTasks();
 
-    ArrayList<Subtask> getAllSubtasks();
+    List<Subtask> getAllSubtasks();
 
-    Task getTask(Integer id);
+    Task getTask(int id);
 
-    EpicTask getEpicTask(Integer id);
+    EpicTask getEpicTask(int id);
 
-    Subtask getSubtask(Integer id);
+    Subtask getSubtask(int id);
+
+    default Task getTask(Integer id) {
+        return getTask(requireId(id, "Task"));
+    }
+
+    default EpicTask getEpicTask(Integer id) {
+        return getEpicTask(requireId(id, "EpicTask"));
+    }
+
+    default Subtask getSubtask(Integer id) {
+        return getSubtask(requireId(id, "Subtask"));
+    }
 
     void deleteAllTasks();
 
@@ -39,13 +58,29 @@ public interface TaskManager {
 
     void deleteAllSubtasks();
 
-    void deleteTask(Integer id);
+    void deleteTask(int id);
+
+    void deleteEpicTask(int id);
+
+    void deleteSubtask(int id);
+
+    default void deleteTask(Integer id) {
+        deleteTask(requireId(id, "Task"));
+    }
 
-    void deleteEpicTask(Integer id);
+    default void deleteEpicTask(Integer id) {
+        deleteEpicTask(requireId(id, "EpicTask"));
+    }
 
-    void deleteSubtask(Integer id);
+    default void deleteSubtask(Integer id) {
+        deleteSubtask(requireId(id, "Subtask"));
+    }
 
-    ArrayList<Subtask> getSubtasksOfEpic(Integer id);
+    ArrayList<Subtask> getSubtasksOfEpic(int id);
+
+    default ArrayList<Subtask> getSubtasksOfEpic(Integer id) {
+        return getSubtasksOfEpic(requireId(id, "EpicTask"));
+    }
 
     void updateTask(Task task);
 
@@ -56,4 +91,41 @@ public interface TaskManager {
     void updateEpicTaskStatus(Integer id);
 
     List<Task> getPrioritizedTasks();
+
+    List<Task> getTasksPage(Integer afterId, int limit);
+
+    List<EpicTask> getEpicTasksPage(Integer afterId, int limit);
+
+    List<Subtask> getSubtasksPage(Integer afterId, int limit);
+
+    List<Task> getPrioritizedTasksPage(LocalDateTime after, int limit);
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    List<TimeSlot> findFreeSlots(LocalDateTime earliest, Duration duration, int count);
+
+    List<Task> findTasks(TaskType type, TaskStatus status, Integer epicId);
+
+    List<Task> searchTasks(String query, int limit);
+
+    void applyBatch(List<Task> batch);
+
+    long getLastChangeSequence();
+
+    List<TaskChangeEvent> getChangesSince(long sequence, int limit);
+
+    void addChangeListener(TaskChangeListener listener, long fromSequence);
+
+    void removeChangeListener(TaskChangeListener listener);
+
+    default void runWithDurability(Durability durability, Runnable operation) {
+        operation.run();
+    }
+
+    private static int requireId(Integer id, String type) {
+        if (id == null) {
+            throw new TaskNotFoundException("Задача (" + type + ", id: null) не найдена.");
+        }
+        return id;
+    }
 }
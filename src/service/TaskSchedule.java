@@ -0,0 +1,157 @@
+package service;
+
+import model.Task;
+import model.TimeSlot;
+import util.PersistentSortedMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class TaskSchedule {
+    private static final TaskSchedule EMPTY = new TaskSchedule(PersistentSortedMap.empty(Comparator.naturalOrder()));
+
+    private final PersistentSortedMap<LocalDateTime, Task> tasksByStart;
+
+    private TaskSchedule(PersistentSortedMap<LocalDateTime, Task> tasksByStart) {
+        this.tasksByStart = tasksByStart;
+    }
+
+    public static TaskSchedule empty() {
+        return EMPTY;
+    }
+
+    public TaskSchedule add(Task task) {
+        if (task.getStartTime() == null) {
+            return this;
+        }
+        return with(tasksByStart.put(task.getStartTime(), task));
+    }
+
+    public TaskSchedule remove(Task task) {
+        if (task.getStartTime() == null) {
+            return this;
+        }
+        final Task scheduled = tasksByStart.get(task.getStartTime());
+        return scheduled != null && isSameTask(scheduled, task)
+                ? with(tasksByStart.remove(task.getStartTime()))
+                : this;
+    }
+
+    public TaskSchedule replace(Task scheduled, Task replacement) {
+        return remove(scheduled).add(replacement);
+    }
+
+    private TaskSchedule with(PersistentSortedMap<LocalDateTime, Task> updated) {
+        return updated == tasksByStart ? this : new TaskSchedule(updated);
+    }
+
+    public Task findConflict(Task task) {
+        final LocalDateTime start = task.getStartTime();
+        final LocalDateTime end = task.getEndTime();
+        if (start == null || end == null) {
+            return null;
+        }
+
+        final PersistentSortedMap<LocalDateTime, Task> tasks = tasksByStart;
+        Map.Entry<LocalDateTime, Task> candidate = tasks.lowerEntry(end);
+        while (candidate != null && isSameSlot(candidate.getValue(), task)) {
+            candidate = tasks.lowerEntry(candidate.getKey());
+        }
+        if (candidate == null) {
+            return null;
+        }
+        final Task scheduled = candidate.getValue();
+        return getEndTime(scheduled).isAfter(start) ? scheduled : null;
+    }
+
+    public List<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало интервала должно быть раньше его конца.");
+        }
+        final PersistentSortedMap<LocalDateTime, Task> tasks = tasksByStart;
+        final List<Task> found = new ArrayList<>();
+        if (from != null) {
+            final Map.Entry<LocalDateTime, Task> before = tasks.lowerEntry(from);
+            if (before != null && getEndTime(before.getValue()).isAfter(from)) {
+                found.add(before.getValue());
+            }
+        }
+        final Iterator<Map.Entry<LocalDateTime, Task>> window = tasks.entriesFrom(from, true);
+        while (window.hasNext()) {
+            final Map.Entry<LocalDateTime, Task> next = window.next();
+            if (to != null && !next.getKey().isBefore(to)) {
+                break;
+            }
+            found.add(next.getValue());
+        }
+        return found;
+    }
+
+    public List<TimeSlot> findFreeSlots(LocalDateTime earliest, Duration duration, int count) {
+        if (earliest == null || duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Для поиска слотов нужны начало и положительная длительность.");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("Количество слотов должно быть положительным.");
+        }
+        final PersistentSortedMap<LocalDateTime, Task> tasks = tasksByStart;
+        final List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime cursor = earliest;
+        final Map.Entry<LocalDateTime, Task> before = tasks.lowerEntry(earliest);
+        if (before != null && getEndTime(before.getValue()).isAfter(cursor)) {
+            cursor = getEndTime(before.getValue());
+        }
+        final Iterator<Map.Entry<LocalDateTime, Task>> scheduled = tasks.entriesFrom(earliest, true);
+        while (slots.size() < count) {
+            final Task next = scheduled.hasNext() ? scheduled.next().getValue() : null;
+            final LocalDateTime gapEnd = next == null ? LocalDateTime.MAX : next.getStartTime();
+            while (slots.size() < count && !cursor.plus(duration).isAfter(gapEnd)) {
+                final LocalDateTime slotEnd = cursor.plus(duration);
+                slots.add(new TimeSlot(cursor, slotEnd));
+                cursor = slotEnd;
+            }
+            if (next != null && getEndTime(next).isAfter(cursor)) {
+                cursor = getEndTime(next);
+            }
+        }
+        return slots;
+    }
+
+    public boolean hasConflict(Task task) {
+        return findConflict(task) != null;
+    }
+
+    public int size() {
+        return tasksByStart.size();
+    }
+
+    public boolean isEmpty() {
+        return tasksByStart.isEmpty();
+    }
+
+    public List<Task> getTasks() {
+        return tasksByStart.values();
+    }
+
+    private static LocalDateTime getEndTime(Task task) {
+        final LocalDateTime endTime = task.getEndTime();
+        return endTime == null ? task.getStartTime() : endTime;
+    }
+
+    private static boolean isSameTask(Task scheduled, Task task) {
+        return task.getId() != null && Objects.equals(scheduled.getId(), task.getId());
+    }
+
+    private static boolean isSameSlot(Task scheduled, Task task) {
+        return isSameTask(scheduled, task)
+                && scheduled.getStartTime().equals(task.getStartTime())
+                && getEndTime(scheduled).equals(task.getEndTime());
+    }
+
+}
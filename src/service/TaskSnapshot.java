@@ -0,0 +1,91 @@
+package service;
+
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TaskSnapshot {
+    private final List<Task> tasks;
+    private final List<EpicTask> epics;
+    private final List<Subtask> subtasks;
+    private final List<Task> prioritizedTasks;
+
+    public TaskSnapshot(List<Task> tasks, List<EpicTask> epics, List<Subtask> subtasks, List<Task> prioritizedTasks) {
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.prioritizedTasks = prioritizedTasks;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<EpicTask> getEpics() {
+        return epics;
+    }
+
+    public List<Subtask> getSubtasks() {
+        return subtasks;
+    }
+
+    public List<Task> getPrioritizedTasks() {
+        return prioritizedTasks;
+    }
+
+    public List<Task> getTasksPage(Integer afterId, int limit) {
+        return page(tasks, afterId, limit);
+    }
+
+    public List<EpicTask> getEpicsPage(Integer afterId, int limit) {
+        return page(epics, afterId, limit);
+    }
+
+    public List<Subtask> getSubtasksPage(Integer afterId, int limit) {
+        return page(subtasks, afterId, limit);
+    }
+
+    public List<Task> getPrioritizedTasksPage(LocalDateTime after, int limit) {
+        checkLimit(limit);
+        int from = 0;
+        if (after != null) {
+            int to = prioritizedTasks.size();
+            while (from < to) {
+                final int mid = (from + to) >>> 1;
+                if (prioritizedTasks.get(mid).getStartTime().isAfter(after)) {
+                    to = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+        }
+        return List.copyOf(prioritizedTasks.subList(from, (int) Math.min(prioritizedTasks.size(), (long) from + limit)));
+    }
+
+    public static <T extends Task> List<T> page(List<T> sorted, Integer afterId, int limit) {
+        checkLimit(limit);
+        int from = 0;
+        if (afterId != null) {
+            int to = sorted.size();
+            while (from < to) {
+                final int mid = (from + to) >>> 1;
+                if (sorted.get(mid).getId() > afterId) {
+                    to = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+        }
+        return List.copyOf(sorted.subList(from, (int) Math.min(sorted.size(), (long) from + limit)));
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным.");
+        }
+    }
+
+}
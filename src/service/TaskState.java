@@ -0,0 +1,109 @@
+package service;
+
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskType;
+import util.PersistentIntMap;
+
+public final class TaskState {
+    private static final TaskState EMPTY = new TaskState(PersistentIntMap.empty(), PersistentIntMap.empty(),
+            PersistentIntMap.empty(), TaskSchedule.empty());
+
+    private final PersistentIntMap<Task> tasks;
+    private final PersistentIntMap<EpicTask> epics;
+    private final PersistentIntMap<Subtask> subtasks;
+    private final TaskSchedule schedule;
+    private TaskSnapshot snapshot;
+
+    private TaskState(PersistentIntMap<Task> tasks, PersistentIntMap<EpicTask> epics,
+                      PersistentIntMap<Subtask> subtasks, TaskSchedule schedule) {
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.schedule = schedule;
+    }
+
+    public static TaskState empty() {
+        return EMPTY;
+    }
+
+    public PersistentIntMap<Task> getTasks() {
+        return tasks;
+    }
+
+    public PersistentIntMap<EpicTask> getEpics() {
+        return epics;
+    }
+
+    public PersistentIntMap<Subtask> getSubtasks() {
+        return subtasks;
+    }
+
+    public TaskSchedule getSchedule() {
+        return schedule;
+    }
+
+    public Task find(TaskType type, int id) {
+        return switch (type) {
+            case TASK -> tasks.get(id);
+            case EPIC -> epics.get(id);
+            case SUBTASK -> subtasks.get(id);
+        };
+    }
+
+    public TaskState put(Task task) {
+        final int id = task.getId();
+        return switch (task.getType()) {
+            case TASK -> with(tasks.put(id, task), epics, subtasks, schedule);
+            case EPIC -> with(tasks, epics.put(id, (EpicTask) task), subtasks, schedule);
+            case SUBTASK -> with(tasks, epics, subtasks.put(id, (Subtask) task), schedule);
+        };
+    }
+
+    public TaskState remove(TaskType type, int id) {
+        return switch (type) {
+            case TASK -> with(tasks.remove(id), epics, subtasks, schedule);
+            case EPIC -> with(tasks, epics.remove(id), subtasks, schedule);
+            case SUBTASK -> with(tasks, epics, subtasks.remove(id), schedule);
+        };
+    }
+
+    public TaskState clear(TaskType type) {
+        return switch (type) {
+            case TASK -> with(PersistentIntMap.empty(), epics, subtasks, schedule);
+            case EPIC -> with(tasks, PersistentIntMap.empty(), subtasks, schedule);
+            case SUBTASK -> with(tasks, epics, PersistentIntMap.empty(), schedule);
+        };
+    }
+
+    public TaskState schedule(Task task) {
+        return task.getType() == TaskType.EPIC ? this : with(tasks, epics, subtasks, schedule.add(task));
+    }
+
+    public TaskState unschedule(Task task) {
+        return task.getType() == TaskType.EPIC ? this : with(tasks, epics, subtasks, schedule.remove(task));
+    }
+
+    public TaskState withSchedule(TaskSchedule schedule) {
+        return with(tasks, epics, subtasks, schedule);
+    }
+
+    public TaskSnapshot toSnapshot() {
+        TaskSnapshot built = snapshot;
+        if (built == null) {
+            built = new TaskSnapshot(tasks.values(), epics.values(), subtasks.values(), schedule.getTasks());
+            snapshot = built;
+        }
+        return built;
+    }
+
+    private TaskState with(PersistentIntMap<Task> tasks, PersistentIntMap<EpicTask> epics,
+                           PersistentIntMap<Subtask> subtasks, TaskSchedule schedule) {
+        if (tasks == this.tasks && epics == this.epics && subtasks == this.subtasks && schedule == this.schedule) {
+            return this;
+        }
+        return new TaskState(tasks, epics, subtasks, schedule);
+    }
+
+}
@@ -0,0 +1,183 @@
+package util;
+
+import model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+public class BinarySnapshotFormatter {
+    public static final int MAGIC = 0x4B424E39;
+    public static final short VERSION = 2;
+    private static final short UNFRAMED_VERSION = 1;
+    private static final int RECORD_BUFFER_SIZE = 256;
+    private static final int HAS_DURATION = 1;
+    private static final int HAS_START_TIME = 1 << 1;
+    private static final int HAS_SUBMINUTE_START = 1 << 2;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    public static void writeHeader(DataOutputStream out, int taskCount) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(taskCount);
+    }
+
+    public static void writeRecord(DataOutputStream out, Task task) throws IOException {
+        final ByteArrayOutputStream record = new ByteArrayOutputStream(RECORD_BUFFER_SIZE);
+        writeTask(new DataOutputStream(record), task);
+        final byte[] bytes = record.toByteArray();
+        out.writeInt(bytes.length);
+        out.writeInt(RecordFraming.checksum(bytes, 0, bytes.length));
+        out.write(bytes);
+    }
+
+    public static void writeTask(DataOutputStream out, Task task) throws IOException {
+        final LocalDateTime startTime = task.getStartTime();
+        final Duration duration = task.getDuration();
+        final long startNanos = startTime == null ? 0 : startTime.getSecond() * 1_000_000_000L + startTime.getNano();
+        int flags = 0;
+        if (duration != null) {
+            flags |= HAS_DURATION;
+        }
+        if (startTime != null) {
+            flags |= HAS_START_TIME;
+            if (startNanos != 0) {
+                flags |= HAS_SUBMINUTE_START;
+            }
+        }
+
+        out.writeByte(task.getType().ordinal());
+        out.writeInt(task.getId());
+        out.writeByte(task.getStatus().ordinal());
+        out.writeByte(flags);
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        if (duration != null) {
+            out.writeLong(duration.toMinutes());
+        }
+        if (startTime != null) {
+            out.writeLong(startTime.toEpochSecond(ZoneOffset.UTC) / 60);
+            if (startNanos != 0) {
+                out.writeLong(startNanos);
+            }
+        }
+        if (task.getType() == TaskType.SUBTASK) {
+            out.writeInt(((Subtask) task).getEpicId());
+        }
+    }
+
+    public static boolean read(DataInputStream in, Consumer<Task> consumer) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Файл не является бинарным снимком задач.");
+        }
+        final short version = in.readShort();
+        if (version != VERSION && version != UNFRAMED_VERSION) {
+            throw new IOException("Неподдерживаемая версия бинарного снимка: " + version + ".");
+        }
+        final int taskCount = in.readInt();
+        for (int i = 0; i < taskCount; i++) {
+            if (version == UNFRAMED_VERSION) {
+                consumer.accept(readTask(in));
+                continue;
+            }
+            final Task task = readRecord(in);
+            if (task == null) {
+                return false;
+            }
+            consumer.accept(task);
+        }
+        return true;
+    }
+
+    private static Task readRecord(DataInputStream in) throws IOException {
+        final byte[] bytes;
+        final int checksum;
+        try {
+            final int length = in.readInt();
+            checksum = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                return null;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        if (RecordFraming.checksum(bytes, 0, bytes.length) != checksum) {
+            return null;
+        }
+        return readTask(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    public static Task readTask(DataInputStream in) throws IOException {
+        final TaskType taskType = TYPES[in.readUnsignedByte()];
+        final int id = in.readInt();
+        final TaskStatus status = STATUSES[in.readUnsignedByte()];
+        final int flags = in.readUnsignedByte();
+        final String title = readString(in);
+        final String description = readString(in);
+        Duration duration = null;
+        LocalDateTime startTime = null;
+
+        if ((flags & HAS_DURATION) != 0) {
+            duration = Duration.ofMinutes(in.readLong());
+        }
+        if ((flags & HAS_START_TIME) != 0) {
+            final long epochMinute = in.readLong();
+            final long startNanos = (flags & HAS_SUBMINUTE_START) != 0 ? in.readLong() : 0;
+            if (startNanos < 0 || startNanos >= NANOS_PER_MINUTE) {
+                throw new IOException("Некорректное время начала задачи id: " + id + ".");
+            }
+            startTime = LocalDateTime.ofEpochSecond(epochMinute * 60 + startNanos / 1_000_000_000L,
+                    (int) (startNanos % 1_000_000_000L), ZoneOffset.UTC);
+        }
+
+        return switch (taskType) {
+            case TASK -> new Task(id, title, description, status, duration, startTime);
+            case EPIC -> new EpicTask(id, title, description, status, duration, startTime);
+            case SUBTASK -> new Subtask(id, title, description, status, duration, startTime, in.readInt());
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static boolean startsWithMagic(byte[] header, int length) {
+        if (length < 4) {
+            return false;
+        }
+        final int magic = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16)
+                | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+        return magic == MAGIC;
+    }
+
+}
@@ -6,65 +6,105 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class CSVFormatter {
-    private static final String SEP = ",";
+    private static final char SEP = ',';
+    private static final char QUOTE = '"';
+    private static final String NULL_VALUE = "null";
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
 
     public static String getHeader() {
         return "ID,TYPE,TITLE,STATUS,DESCRIPTION,DURATION,START_TIME,EPIC_ID(ONLY_FOR_SUBTASKS)";
     }
 
     public static String taskToString(Task task) {
-        String epicId;
-        Long duration;
+        return appendTask(new StringBuilder(64), task).toString();
+    }
 
-        if (task.getType().equals(TaskType.SUBTASK)) {
-            epicId = ((Subtask)task).getEpicId().toString();
-        } else {
-            epicId = "";
-        }
+    public static StringBuilder appendTask(StringBuilder builder, Task task) {
+        builder.append(task.getId()).append(SEP)
+                .append(task.getType()).append(SEP);
+        appendField(builder, task.getTitle()).append(SEP)
+                .append(task.getStatus()).append(SEP);
+        appendField(builder, task.getDescription()).append(SEP);
 
         if (task.getDuration() != null) {
-            duration = task.getDuration().toMinutes();
+            builder.append(task.getDuration().toMinutes());
         } else {
-            duration = null;
+            builder.append(NULL_VALUE);
         }
+        builder.append(SEP).append(task.getStartTime()).append(SEP);
 
-        return task.getId() + SEP +
-                task.getType() + SEP +
-                task.getTitle() + SEP +
-                task.getStatus() + SEP +
-                task.getDescription() + SEP +
-                duration + SEP +
-                task.getStartTime() + SEP +
-                epicId;
+        if (task.getType().equals(TaskType.SUBTASK)) {
+            builder.append(((Subtask) task).getEpicId());
+        }
+        return builder;
+    }
+
+    public static StringBuilder appendField(StringBuilder builder, String value) {
+        if (value == null) {
+            return builder.append(NULL_VALUE);
+        }
+        if (!needsQuoting(value)) {
+            return builder.append(value);
+        }
+
+        builder.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            if (ch == QUOTE) {
+                builder.append(QUOTE);
+            }
+            builder.append(ch);
+        }
+        return builder.append(QUOTE);
+    }
+
+    private static boolean needsQuoting(String value) {
+        if (value.isEmpty() || value.equals(NULL_VALUE)) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            if (ch == SEP || ch == QUOTE || ch == '\n' || ch == '\r') {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static Task stringToTask(String str) {
-        final String[] attributes = str.split(SEP);
-        final int id = Integer.parseInt(attributes[0]);
-        final TaskType taskType = TaskType.valueOf(attributes[1]);
-        final String title = attributes[2];
-        final TaskStatus status = TaskStatus.valueOf(attributes[3]);
-        final String description = attributes[4];
+        final CSVRecordParser record = new CSVRecordParser();
+        final char[] chars = str.toCharArray();
+        record.parseRecord(chars, 0, chars.length, true);
+        return recordToTask(record, 0);
+    }
+
+    public static Task recordToTask(CSVRecordParser record, int offset) {
+        final int id = record.getInt(offset);
+        final TaskType taskType = record.getEnum(offset + 1, TYPES);
+        final String title = record.isNull(offset + 2) ? null : record.getString(offset + 2);
+        final TaskStatus status = record.getEnum(offset + 3, STATUSES);
+        final String description = record.isNull(offset + 4) ? null : record.getString(offset + 4);
         final Duration duration;
         final LocalDateTime startTime;
 
-        if (attributes[5].equals("null")) {
+        if (record.isNull(offset + 5)) {
             duration = null;
         } else {
-            duration = Duration.ofMinutes(Long.parseLong(attributes[5]));
+            duration = Duration.ofMinutes(record.getLong(offset + 5));
         }
 
-        if (attributes[6].equals("null")) {
+        if (record.isNull(offset + 6)) {
             startTime = null;
         } else {
-            startTime = LocalDateTime.parse(attributes[6]);
+            startTime = record.getDateTime(offset + 6);
         }
 
         return switch (taskType) {
             case TASK -> new Task(id, title, description, status, duration, startTime);
             case EPIC -> new EpicTask(id, title, description, status, duration, startTime);
-            case SUBTASK -> new Subtask(id, title, description, status, duration, startTime, Integer.parseInt(attributes[7]));
-            default -> throw new IllegalArgumentException("Ошибка получения типа задачи.");
+            case SUBTASK -> new Subtask(id, title, description, status, duration, startTime,
+                    record.getInt(offset + 7));
         };
     }
 
@@ -0,0 +1,233 @@
+package util;
+
+import java.time.LocalDateTime;
+
+public class CSVRecordParser {
+    private static final int MAX_FIELDS = 16;
+    private static final String NULL_VALUE = "null";
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private final boolean[] quoted = new boolean[MAX_FIELDS];
+    private final boolean[] escaped = new boolean[MAX_FIELDS];
+    private char[] buf;
+    private int fieldCount;
+
+    public int parseRecord(char[] buf, int from, int limit, boolean endOfInput) {
+        this.buf = buf;
+        fieldCount = 0;
+        int pos = from;
+        if (pos >= limit) {
+            return -1;
+        }
+
+        while (true) {
+            if (fieldCount == MAX_FIELDS) {
+                throw new IllegalArgumentException("Слишком много полей в CSV-записи.");
+            }
+            final int field = fieldCount;
+
+            if (pos < limit && buf[pos] == '"') {
+                final int start = ++pos;
+                boolean hasEscapes = false;
+                while (true) {
+                    if (pos >= limit) {
+                        if (endOfInput) {
+                            throw new IllegalArgumentException("Незакрытые кавычки в CSV-записи.");
+                        }
+                        return -1;
+                    }
+                    if (buf[pos] == '"') {
+                        if (pos + 1 >= limit && !endOfInput) {
+                            return -1;
+                        }
+                        if (pos + 1 < limit && buf[pos + 1] == '"') {
+                            hasEscapes = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                setField(field, start, pos, true, hasEscapes);
+                pos++;
+                if (pos < limit && buf[pos] == '\r') {
+                    pos++;
+                }
+            } else {
+                final int start = pos;
+                while (pos < limit && buf[pos] != ',' && buf[pos] != '\n') {
+                    pos++;
+                }
+                if (pos >= limit && !endOfInput) {
+                    return -1;
+                }
+                int end = pos;
+                if (end > start && buf[end - 1] == '\r') {
+                    end--;
+                }
+                setField(field, start, end, false, false);
+            }
+
+            if (pos >= limit) {
+                if (!endOfInput) {
+                    return -1;
+                }
+                return limit;
+            }
+            if (buf[pos] == ',') {
+                pos++;
+            } else if (buf[pos] == '\n') {
+                return pos + 1;
+            } else {
+                throw new IllegalArgumentException("Некорректный символ после закрывающей кавычки.");
+            }
+        }
+    }
+
+    private void setField(int field, int start, int end, boolean isQuoted, boolean hasEscapes) {
+        starts[field] = start;
+        ends[field] = end;
+        quoted[field] = isQuoted;
+        escaped[field] = hasEscapes;
+        fieldCount++;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public boolean isBlankRecord() {
+        if (fieldCount != 1 || quoted[0]) {
+            return false;
+        }
+        for (int i = starts[0]; i < ends[0]; i++) {
+            if (!Character.isWhitespace(buf[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isNull(int field) {
+        checkField(field);
+        return !quoted[field] && (starts[field] == ends[field] || fieldEquals(field, NULL_VALUE));
+    }
+
+    public boolean fieldEquals(int field, String value) {
+        checkField(field);
+        final int length = ends[field] - starts[field];
+        if (escaped[field] || length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[starts[field] + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public <E extends Enum<E>> E getEnum(int field, E[] values) {
+        for (E value : values) {
+            if (fieldEquals(field, value.name())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение в поле " + field + ": " + getString(field) + ".");
+    }
+
+    public int getInt(int field) {
+        final long value = getLong(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Число вне диапазона int: " + value + ".");
+        }
+        return (int) value;
+    }
+
+    public long getLong(int field) {
+        checkField(field);
+        return parseLong(starts[field], ends[field]);
+    }
+
+    private long parseLong(int from, int to) {
+        int pos = from;
+        boolean negative = false;
+        if (pos < to && (buf[pos] == '-' || buf[pos] == '+')) {
+            negative = buf[pos] == '-';
+            pos++;
+        }
+        if (pos >= to) {
+            throw new NumberFormatException("Пустое числовое значение.");
+        }
+        long result = 0;
+        for (; pos < to; pos++) {
+            final int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Некорректное число: " + new String(buf, from, to - from) + ".");
+            }
+            result = Math.addExact(Math.multiplyExact(result, 10), digit);
+        }
+        return negative ? -result : result;
+    }
+
+    public LocalDateTime getDateTime(int field) {
+        checkField(field);
+        final int start = starts[field];
+        final int length = ends[field] - start;
+        if (length < 16 || buf[start + 4] != '-' || buf[start + 7] != '-' || buf[start + 10] != 'T'
+                || buf[start + 13] != ':') {
+            return LocalDateTime.parse(getString(field));
+        }
+
+        final int year = (int) parseLong(start, start + 4);
+        final int month = (int) parseLong(start + 5, start + 7);
+        final int day = (int) parseLong(start + 8, start + 10);
+        final int hour = (int) parseLong(start + 11, start + 13);
+        final int minute = (int) parseLong(start + 14, start + 16);
+        int second = 0;
+        int nano = 0;
+
+        if (length > 16) {
+            if (length < 19 || buf[start + 16] != ':') {
+                return LocalDateTime.parse(getString(field));
+            }
+            second = (int) parseLong(start + 17, start + 19);
+            if (length > 19) {
+                final int fractionDigits = length - 20;
+                if (buf[start + 19] != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return LocalDateTime.parse(getString(field));
+                }
+                nano = (int) parseLong(start + 20, start + length);
+                for (int i = fractionDigits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    public String getString(int field) {
+        checkField(field);
+        final int start = starts[field];
+        final int length = ends[field] - start;
+        if (!escaped[field]) {
+            return new String(buf, start, length);
+        }
+        final StringBuilder result = new StringBuilder(length);
+        for (int i = start; i < ends[field]; i++) {
+            result.append(buf[i]);
+            if (buf[i] == '"') {
+                i++;
+            }
+        }
+        return result.toString();
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IllegalArgumentException("Поле " + field + " отсутствует в CSV-записи.");
+        }
+    }
+
+}
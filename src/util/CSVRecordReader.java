@@ -0,0 +1,62 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+public class CSVRecordReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private final Reader reader;
+    private final CSVRecordParser parser = new CSVRecordParser();
+    private char[] buf = new char[DEFAULT_BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean endOfInput;
+
+    public CSVRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public CSVRecordParser next() throws IOException {
+        while (true) {
+            if (pos < limit) {
+                final int recordEnd = parser.parseRecord(buf, pos, limit, endOfInput);
+                if (recordEnd >= 0) {
+                    pos = recordEnd;
+                    if (parser.isBlankRecord()) {
+                        continue;
+                    }
+                    return parser;
+                }
+            }
+            if (endOfInput) {
+                return null;
+            }
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        final int read = reader.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,6 @@
+package util;
+
+public enum Compression {
+    NONE,
+    GZIP
+}
@@ -0,0 +1,47 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class CompressionStreams {
+    private static final int GZIP_MAGIC_FIRST = 0x1F;
+    private static final int GZIP_MAGIC_SECOND = 0x8B;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static OutputStream wrap(OutputStream out, Compression compression) throws IOException {
+        return switch (compression) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE, true);
+        };
+    }
+
+    public static void finish(OutputStream out) throws IOException {
+        if (out instanceof DeflaterOutputStream deflaterOut) {
+            deflaterOut.finish();
+        }
+        out.flush();
+    }
+
+    public static Compression detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Поток должен поддерживать mark/reset.");
+        }
+        in.mark(2);
+        final int first = in.read();
+        final int second = in.read();
+        in.reset();
+        return first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND ? Compression.GZIP : Compression.NONE;
+    }
+
+    public static InputStream unwrap(InputStream in, Compression compression) throws IOException {
+        return switch (compression) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+        };
+    }
+
+}
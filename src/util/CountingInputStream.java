@@ -0,0 +1,55 @@
+package util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class CountingInputStream extends FilterInputStream {
+    private long bytesRead;
+    private long markedBytesRead;
+
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result = super.read();
+        if (result >= 0) {
+            bytesRead++;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        final int result = super.read(buffer, offset, length);
+        if (result > 0) {
+            bytesRead += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        bytesRead += skipped;
+        return skipped;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        super.mark(readLimit);
+        markedBytesRead = bytesRead;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        super.reset();
+        bytesRead = markedBytesRead;
+    }
+}
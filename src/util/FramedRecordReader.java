@@ -0,0 +1,111 @@
+package util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipException;
+
+public class FramedRecordReader implements Closeable {
+    private static final int MAX_LENGTH_DIGITS = 10;
+    private final InputStream in;
+    private long validBytes;
+    private long readBytes;
+    private boolean torn;
+
+    public FramedRecordReader(InputStream in) {
+        this.in = in;
+    }
+
+    public byte[] next() throws IOException {
+        if (torn) {
+            return null;
+        }
+        try {
+            final byte[] payload = readRecord();
+            if (payload != null) {
+                validBytes = readBytes;
+            }
+            return payload;
+        } catch (EOFException | ZipException e) {
+            torn = true;
+            return null;
+        }
+    }
+
+    private byte[] readRecord() throws IOException {
+        int ch = in.read();
+        if (ch < 0) {
+            return null;
+        }
+        readBytes++;
+
+        long length = 0;
+        int digits = 0;
+        while (ch != RecordFraming.SEP) {
+            if (ch < '0' || ch > '9' || ++digits > MAX_LENGTH_DIGITS) {
+                return tornRecord();
+            }
+            length = length * 10 + (ch - '0');
+            ch = readByte();
+        }
+        if (digits == 0 || length > Integer.MAX_VALUE) {
+            return tornRecord();
+        }
+
+        int expectedChecksum = 0;
+        for (int i = 0; i < RecordFraming.CHECKSUM_LENGTH; i++) {
+            final int digit = Character.digit(readByte(), 16);
+            if (digit < 0) {
+                return tornRecord();
+            }
+            expectedChecksum = (expectedChecksum << 4) | digit;
+        }
+        if (readByte() != RecordFraming.SEP) {
+            return tornRecord();
+        }
+
+        final byte[] payload = in.readNBytes((int) length);
+        readBytes += payload.length;
+        if (payload.length < length) {
+            return tornRecord();
+        }
+
+        ch = readByte();
+        if (ch == '\r') {
+            ch = readByte();
+        }
+        if (ch != '\n' || RecordFraming.checksum(payload, 0, payload.length) != expectedChecksum) {
+            return tornRecord();
+        }
+        return payload;
+    }
+
+    private int readByte() throws IOException {
+        final int ch = in.read();
+        if (ch < 0) {
+            throw new EOFException();
+        }
+        readBytes++;
+        return ch;
+    }
+
+    private byte[] tornRecord() {
+        torn = true;
+        return null;
+    }
+
+    public boolean isTorn() {
+        return torn;
+    }
+
+    public long getValidBytes() {
+        return validBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
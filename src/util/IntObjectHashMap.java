@@ -0,0 +1,345 @@
+package util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+public class IntObjectHashMap<V> extends AbstractMap<Integer, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public IntObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 2 < expectedSize * 3) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[findSlot(key)];
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    public boolean containsKey(int key) {
+        return values[findSlot(key)] != null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Значение не может быть null.");
+        }
+        int slot = findSlot(key);
+        final V previous = (V) values[slot];
+        if (previous == null) {
+            if ((size + 1) * 3 > values.length * 2) {
+                resize(values.length * 2);
+                slot = findSlot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        return previous;
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        final int slot = findSlot(key);
+        final V previous = (V) values[slot];
+        if (previous != null) {
+            deleteSlot(slot);
+            size--;
+        }
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    Integer element(int slot) {
+                        return keys[slot];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return IntObjectHashMap.this.remove(o) != null;
+            }
+
+            @Override
+            public void clear() {
+                IntObjectHashMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V element(int slot) {
+                        return (V) values[slot];
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<V> spliterator() {
+                return new ValueSpliterator(0, values.length);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void forEach(Consumer<? super V> action) {
+                forEachValue(action);
+            }
+
+            @Override
+            public void clear() {
+                IntObjectHashMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Integer, V>> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Map.Entry<Integer, V> element(int slot) {
+                        return new SimpleImmutableEntry<>(keys[slot], (V) values[slot]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                IntObjectHashMap.this.clear();
+            }
+        };
+    }
+
+    private int findSlot(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        values[slot] = null;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == null) {
+                return;
+            }
+            final int ideal = hash(keys[current]) & mask;
+            final boolean staysInPlace = slot <= current
+                    ? slot < ideal && ideal <= current
+                    : slot < ideal || ideal <= current;
+            if (!staysInPlace) {
+                keys[slot] = keys[current];
+                values[slot] = values[current];
+                values[current] = null;
+                slot = current;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                final int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        return key ^ (key >>> 16);
+    }
+
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private final Object[] table = values;
+        private int next = skipEmpty(0);
+
+        abstract E element(int slot);
+
+        private int skipEmpty(int slot) {
+            while (slot < table.length && table[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < table.length;
+        }
+
+        @Override
+        public E next() {
+            if (next >= table.length) {
+                throw new NoSuchElementException();
+            }
+            final int slot = next;
+            next = skipEmpty(next + 1);
+            return element(slot);
+        }
+    }
+
+    private class ValueSpliterator implements Spliterator<V> {
+        private final Object[] table = values;
+        private int from;
+        private final int to;
+
+        private ValueSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super V> action) {
+            while (from < to) {
+                final Object value = table[from++];
+                if (value != null) {
+                    action.accept((V) value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super V> action) {
+            for (; from < to; from++) {
+                final Object value = table[from];
+                if (value != null) {
+                    action.accept((V) value);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            final int middle = (from + to) >>> 1;
+            if (middle <= from) {
+                return null;
+            }
+            final ValueSpliterator prefix = new ValueSpliterator(from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return table.length == 0 ? 0 : (long) size * (to - from) / table.length;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL;
+        }
+    }
+
+}
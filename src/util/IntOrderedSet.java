@@ -0,0 +1,209 @@
+package util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+public class IntOrderedSet extends AbstractSet<Integer> {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int EMPTY = -1;
+    private int[] values;
+    private boolean[] removed;
+    private int end;
+    private int size;
+    private int[] table;
+    private int mask;
+
+    public IntOrderedSet() {
+        values = new int[DEFAULT_CAPACITY];
+        removed = new boolean[DEFAULT_CAPACITY];
+        table = new int[DEFAULT_CAPACITY * 2];
+        Arrays.fill(table, EMPTY);
+        mask = table.length - 1;
+    }
+
+    public boolean add(int value) {
+        if (table[findSlot(value)] != EMPTY) {
+            return false;
+        }
+        if (end == values.length) {
+            if (size <= end / 2) {
+                compact();
+            } else {
+                values = Arrays.copyOf(values, values.length * 2);
+                removed = Arrays.copyOf(removed, removed.length * 2);
+            }
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        values[end] = value;
+        removed[end] = false;
+        table[findSlot(value)] = end;
+        end++;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return add(value.intValue());
+    }
+
+    public boolean contains(int value) {
+        return table[findSlot(value)] != EMPTY;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer value && contains(value.intValue());
+    }
+
+    public boolean remove(int value) {
+        final int slot = findSlot(value);
+        if (table[slot] == EMPTY) {
+            return false;
+        }
+        removed[table[slot]] = true;
+        size--;
+        deleteSlot(slot);
+        if (size == 0) {
+            end = 0;
+        } else if (size * 2 < end) {
+            compact();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer value && remove(value.intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        end = 0;
+        size = 0;
+        Arrays.fill(table, EMPTY);
+    }
+
+    public void forEachInt(IntConsumer action) {
+        for (int i = 0; i < end; i++) {
+            if (!removed[i]) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    public int[] toIntArray() {
+        if (size == end) {
+            return Arrays.copyOf(values, end);
+        }
+        final int[] live = new int[size];
+        int next = 0;
+        for (int i = 0; i < end; i++) {
+            if (!removed[i]) {
+                live[next++] = values[i];
+            }
+        }
+        return live;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return intIterator();
+    }
+
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = skipRemoved(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                final int value = values[next];
+                next = skipRemoved(next + 1);
+                return value;
+            }
+        };
+    }
+
+    private int skipRemoved(int index) {
+        while (index < end && removed[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    private int findSlot(int value) {
+        int slot = hash(value) & mask;
+        while (table[slot] != EMPTY && values[table[slot]] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        table[slot] = EMPTY;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (table[current] == EMPTY) {
+                return;
+            }
+            final int ideal = hash(values[table[current]]) & mask;
+            final boolean staysInPlace = slot <= current
+                    ? slot < ideal && ideal <= current
+                    : slot < ideal || ideal <= current;
+            if (!staysInPlace) {
+                table[slot] = table[current];
+                table[current] = EMPTY;
+                slot = current;
+            }
+        }
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < end; i++) {
+            if (!removed[i]) {
+                values[live++] = values[i];
+            }
+        }
+        Arrays.fill(removed, 0, end, false);
+        end = live;
+        rehash(table.length);
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        mask = capacity - 1;
+        for (int i = 0; i < end; i++) {
+            if (!removed[i]) {
+                table[findSlot(values[i])] = i;
+            }
+        }
+    }
+
+    private static int hash(int value) {
+        final int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,78 @@
+package util;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+
+public class IntTreeSet extends AbstractSet<Integer> {
+    private PersistentIntMap<Boolean> members;
+
+    public IntTreeSet() {
+        this(PersistentIntMap.empty());
+    }
+
+    private IntTreeSet(PersistentIntMap<Boolean> members) {
+        this.members = members;
+    }
+
+    public IntTreeSet copy() {
+        return new IntTreeSet(members);
+    }
+
+    public boolean add(int value) {
+        final PersistentIntMap<Boolean> updated = members.put(value, Boolean.TRUE);
+        if (updated == members) {
+            return false;
+        }
+        members = updated;
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return add(value.intValue());
+    }
+
+    public boolean contains(int value) {
+        return members.containsKey(value);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Integer && contains(((Integer) value).intValue());
+    }
+
+    public boolean remove(int value) {
+        final PersistentIntMap<Boolean> updated = members.remove(value);
+        if (updated == members) {
+            return false;
+        }
+        members = updated;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return value instanceof Integer && remove(((Integer) value).intValue());
+    }
+
+    @Override
+    public void clear() {
+        members = PersistentIntMap.empty();
+    }
+
+    @Override
+    public int size() {
+        return members.size();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return members.keys().iterator();
+    }
+
+    public List<Integer> asList() {
+        return members.keys();
+    }
+
+}
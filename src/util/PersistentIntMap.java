@@ -0,0 +1,272 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+public final class PersistentIntMap<V> {
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null);
+
+    private final Node<V> root;
+
+    private PersistentIntMap(Node<V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public V get(int key) {
+        Node<V> node = root;
+        while (node != null) {
+            if (key == node.key) {
+                return node.value;
+            }
+            node = key < node.key ? node.left : node.right;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public PersistentIntMap<V> put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Значение не может быть null.");
+        }
+        final Node<V> updated = insert(root, key, value);
+        return updated == root ? this : new PersistentIntMap<>(updated);
+    }
+
+    public PersistentIntMap<V> remove(int key) {
+        final Node<V> updated = delete(root, key);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentIntMap<>(updated);
+    }
+
+    public List<V> valuesAfter(Integer after, int limit) {
+        final List<V> found = new ArrayList<>(Math.min(limit, size()));
+        final Iterator<Node<V>> nodes = nodesAfter(after);
+        while (found.size() < limit && nodes.hasNext()) {
+            found.add(nodes.next().value);
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    public List<V> values() {
+        return new View<>(root, node -> node.value);
+    }
+
+    public List<Integer> keys() {
+        return new View<>(root, node -> node.key);
+    }
+
+    private Iterator<Node<V>> nodesAfter(Integer after) {
+        final Deque<Node<V>> path = new ArrayDeque<>();
+        Node<V> node = root;
+        while (node != null) {
+            if (after == null || after < node.key) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return new InOrderIterator<>(path);
+    }
+
+    private static <V> Node<V> insert(Node<V> node, int key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        if (key < node.key) {
+            final Node<V> left = insert(node.left, key, value);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (key > node.key) {
+            final Node<V> right = insert(node.right, key, value);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        return node.value == value ? node : new Node<>(key, value, node.left, node.right);
+    }
+
+    private static <V> Node<V> delete(Node<V> node, int key) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.key) {
+            final Node<V> left = delete(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (key > node.key) {
+            final Node<V> right = delete(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, deleteFirst(node.right));
+    }
+
+    private static <V> Node<V> deleteFirst(Node<V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, deleteFirst(node.left), node.right);
+    }
+
+    private static <V> Node<V> balance(int key, V value, Node<V> left, Node<V> right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            final Node<V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(left.key, left.value, left.left, pivot.left),
+                    new Node<>(key, value, pivot.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            final Node<V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(key, value, left, pivot.left),
+                    new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<V> {
+        private final int key;
+        private final V value;
+        private final Node<V> left;
+        private final Node<V> right;
+        private final int height;
+        private final int size;
+
+        private Node(int key, V value, Node<V> left, Node<V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+    }
+
+    private static final class View<V, T> extends AbstractList<T> {
+        private final Node<V> root;
+        private final Function<Node<V>, T> element;
+
+        private View(Node<V> root, Function<Node<V>, T> element) {
+            this.root = root;
+            this.element = element;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= sizeOf(root)) {
+                throw new IndexOutOfBoundsException("Индекс " + index + " вне списка размера " + sizeOf(root));
+            }
+            Node<V> node = root;
+            while (true) {
+                final int leftSize = sizeOf(node.left);
+                if (index == leftSize) {
+                    return element.apply(node);
+                }
+                if (index < leftSize) {
+                    node = node.left;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return sizeOf(root);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Deque<Node<V>> path = new ArrayDeque<>();
+            for (Node<V> node = root; node != null; node = node.left) {
+                path.push(node);
+            }
+            final Iterator<Node<V>> nodes = new InOrderIterator<>(path);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return nodes.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return element.apply(nodes.next());
+                }
+            };
+        }
+    }
+
+    private static final class InOrderIterator<V> implements Iterator<Node<V>> {
+        private final Deque<Node<V>> path;
+
+        private InOrderIterator(Deque<Node<V>> path) {
+            this.path = path;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Node<V> next() {
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final Node<V> next = path.pop();
+            for (Node<V> node = next.right; node != null; node = node.left) {
+                path.push(node);
+            }
+            return next;
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public final class PersistentSortedMap<K, V> {
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+
+    private PersistentSortedMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    public static <K, V> PersistentSortedMap<K, V> empty(Comparator<? super K> comparator) {
+        return new PersistentSortedMap<>(comparator, null);
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            final int cmp = comparator.compare(key, node.key);
+            if (cmp == 0) {
+                return node.value;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    public PersistentSortedMap<K, V> put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Значение не может быть null.");
+        }
+        final Node<K, V> updated = insert(root, key, value);
+        return updated == root ? this : new PersistentSortedMap<>(comparator, updated);
+    }
+
+    public PersistentSortedMap<K, V> remove(K key) {
+        final Node<K, V> updated = delete(root, key);
+        return updated == root ? this : new PersistentSortedMap<>(comparator, updated);
+    }
+
+    public Map.Entry<K, V> lowerEntry(K key) {
+        Node<K, V> lower = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            if (comparator.compare(key, node.key) > 0) {
+                lower = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return lower;
+    }
+
+    public Iterator<Map.Entry<K, V>> entriesFrom(K from, boolean inclusive) {
+        final Deque<Node<K, V>> path = new ArrayDeque<>();
+        Node<K, V> node = root;
+        while (node != null) {
+            final int cmp = from == null ? -1 : comparator.compare(from, node.key);
+            if (cmp < 0 || cmp == 0 && inclusive) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return new InOrderIterator<>(path);
+    }
+
+    public List<V> valuesAfter(K after, int limit) {
+        final List<V> found = new ArrayList<>(Math.min(limit, size()));
+        final Iterator<Map.Entry<K, V>> entries = entriesFrom(after, false);
+        while (found.size() < limit && entries.hasNext()) {
+            found.add(entries.next().getValue());
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    public List<V> values() {
+        return new AbstractList<>() {
+            @Override
+            public V get(int index) {
+                if (index < 0 || index >= sizeOf(root)) {
+                    throw new IndexOutOfBoundsException("Индекс " + index + " вне списка размера " + sizeOf(root));
+                }
+                Node<K, V> node = root;
+                while (true) {
+                    final int leftSize = sizeOf(node.left);
+                    if (index == leftSize) {
+                        return node.value;
+                    }
+                    if (index < leftSize) {
+                        node = node.left;
+                    } else {
+                        index -= leftSize + 1;
+                        node = node.right;
+                    }
+                }
+            }
+
+            @Override
+            public int size() {
+                return sizeOf(root);
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                final Iterator<Map.Entry<K, V>> entries = entriesFrom(null, true);
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return entries.next().getValue();
+                    }
+                };
+            }
+        };
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        final int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            final Node<K, V> left = insert(node.left, key, value);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (cmp > 0) {
+            final Node<K, V> right = insert(node.right, key, value);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        return node.value == value ? node : new Node<>(node.key, value, node.left, node.right);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        final int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            final Node<K, V> left = delete(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (cmp > 0) {
+            final Node<K, V> right = delete(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, deleteFirst(node.right));
+    }
+
+    private static <K, V> Node<K, V> deleteFirst(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, deleteFirst(node.left), node.right);
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            final Node<K, V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(left.key, left.value, left.left, pivot.left),
+                    new Node<>(key, value, pivot.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            final Node<K, V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(key, value, left, pivot.left),
+                    new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int sizeOf(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<K, V> implements Map.Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final int size;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("Запись доступна только для чтения.");
+        }
+    }
+
+    private static final class InOrderIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Node<K, V>> path;
+
+        private InOrderIterator(Deque<Node<K, V>> path) {
+            this.path = path;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final Node<K, V> next = path.pop();
+            for (Node<K, V> node = next.right; node != null; node = node.left) {
+                path.push(node);
+            }
+            return next;
+        }
+    }
+
+}
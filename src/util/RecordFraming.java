@@ -0,0 +1,35 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+public class RecordFraming {
+    public static final char SEP = ',';
+    public static final int CHECKSUM_LENGTH = 8;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public static byte[] frame(byte[] payload) {
+        final byte[] header = (payload.length + "" + SEP + toHex(checksum(payload, 0, payload.length)) + SEP)
+                .getBytes(StandardCharsets.US_ASCII);
+        final byte[] framed = new byte[header.length + payload.length];
+        System.arraycopy(header, 0, framed, 0, header.length);
+        System.arraycopy(payload, 0, framed, header.length, payload.length);
+        return framed;
+    }
+
+    public static int checksum(byte[] bytes, int offset, int length) {
+        final CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static String toHex(int value) {
+        final char[] chars = new char[CHECKSUM_LENGTH];
+        for (int i = CHECKSUM_LENGTH - 1; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[value & 0xF];
+            value >>>= 4;
+        }
+        return new String(chars);
+    }
+
+}
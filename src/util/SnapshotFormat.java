@@ -0,0 +1,6 @@
+package util;
+
+public enum SnapshotFormat {
+    CSV,
+    BINARY
+}
@@ -0,0 +1,231 @@
+package util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class SortedLongIntMap {
+    private static final int BLOCK_CAPACITY = 512;
+    private static final int DEFAULT_BLOCKS = 4;
+
+    private long[][] keyBlocks = new long[DEFAULT_BLOCKS][];
+    private int[][] valueBlocks = new int[DEFAULT_BLOCKS][];
+    private int[] blockSizes = new int[DEFAULT_BLOCKS];
+    private int blockCount;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (size == 0) {
+            return false;
+        }
+        final int block = blockOf(key);
+        return Arrays.binarySearch(keyBlocks[block], 0, blockSizes[block], key) >= 0;
+    }
+
+    public int getOrDefault(long key, int defaultValue) {
+        if (size == 0) {
+            return defaultValue;
+        }
+        final int block = blockOf(key);
+        final int index = Arrays.binarySearch(keyBlocks[block], 0, blockSizes[block], key);
+        return index < 0 ? defaultValue : valueBlocks[block][index];
+    }
+
+    public void put(long key, int value) {
+        if (blockCount == 0) {
+            insertBlock(0);
+        }
+        int block = blockOf(key);
+        int index = Arrays.binarySearch(keyBlocks[block], 0, blockSizes[block], key);
+        if (index >= 0) {
+            valueBlocks[block][index] = value;
+            return;
+        }
+        index = -index - 1;
+        if (blockSizes[block] == BLOCK_CAPACITY) {
+            if (index == BLOCK_CAPACITY && block == blockCount - 1) {
+                insertBlock(++block);
+                index = 0;
+            } else {
+                splitBlock(block);
+                if (index > blockSizes[block]) {
+                    index -= blockSizes[block];
+                    block++;
+                }
+            }
+        }
+        final int blockSize = blockSizes[block];
+        System.arraycopy(keyBlocks[block], index, keyBlocks[block], index + 1, blockSize - index);
+        System.arraycopy(valueBlocks[block], index, valueBlocks[block], index + 1, blockSize - index);
+        keyBlocks[block][index] = key;
+        valueBlocks[block][index] = value;
+        blockSizes[block]++;
+        size++;
+    }
+
+    public boolean remove(long key) {
+        if (size == 0) {
+            return false;
+        }
+        final int block = blockOf(key);
+        final int index = Arrays.binarySearch(keyBlocks[block], 0, blockSizes[block], key);
+        if (index < 0) {
+            return false;
+        }
+        final int tail = --blockSizes[block] - index;
+        System.arraycopy(keyBlocks[block], index + 1, keyBlocks[block], index, tail);
+        System.arraycopy(valueBlocks[block], index + 1, valueBlocks[block], index, tail);
+        size--;
+        if (blockSizes[block] == 0) {
+            removeBlock(block);
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keyBlocks, 0, blockCount, null);
+        Arrays.fill(valueBlocks, 0, blockCount, null);
+        blockCount = 0;
+        size = 0;
+    }
+
+    public Cursor cursorFrom(long key, boolean inclusive) {
+        final Cursor cursor = new Cursor();
+        if (size == 0) {
+            return cursor;
+        }
+        cursor.block = blockOf(key);
+        final int index = Arrays.binarySearch(keyBlocks[cursor.block], 0, blockSizes[cursor.block], key);
+        cursor.index = index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+        cursor.normalizeForward();
+        return cursor;
+    }
+
+    public Cursor cursorFirst() {
+        final Cursor cursor = new Cursor();
+        cursor.normalizeForward();
+        return cursor;
+    }
+
+    public Cursor cursorBefore(long key) {
+        final Cursor cursor = new Cursor();
+        if (size == 0) {
+            cursor.block = -1;
+            return cursor;
+        }
+        cursor.block = blockOf(key);
+        final int index = Arrays.binarySearch(keyBlocks[cursor.block], 0, blockSizes[cursor.block], key);
+        cursor.index = (index >= 0 ? index : -index - 1) - 1;
+        cursor.normalizeBackward();
+        return cursor;
+    }
+
+    private int blockOf(long key) {
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (keyBlocks[middle][0] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private void splitBlock(int block) {
+        insertBlock(block + 1);
+        final int moved = BLOCK_CAPACITY / 2;
+        System.arraycopy(keyBlocks[block], BLOCK_CAPACITY - moved, keyBlocks[block + 1], 0, moved);
+        System.arraycopy(valueBlocks[block], BLOCK_CAPACITY - moved, valueBlocks[block + 1], 0, moved);
+        blockSizes[block] = BLOCK_CAPACITY - moved;
+        blockSizes[block + 1] = moved;
+    }
+
+    private void insertBlock(int block) {
+        if (blockCount == keyBlocks.length) {
+            keyBlocks = Arrays.copyOf(keyBlocks, blockCount * 2);
+            valueBlocks = Arrays.copyOf(valueBlocks, blockCount * 2);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+        }
+        System.arraycopy(keyBlocks, block, keyBlocks, block + 1, blockCount - block);
+        System.arraycopy(valueBlocks, block, valueBlocks, block + 1, blockCount - block);
+        System.arraycopy(blockSizes, block, blockSizes, block + 1, blockCount - block);
+        keyBlocks[block] = new long[BLOCK_CAPACITY];
+        valueBlocks[block] = new int[BLOCK_CAPACITY];
+        blockSizes[block] = 0;
+        blockCount++;
+    }
+
+    private void removeBlock(int block) {
+        blockCount--;
+        System.arraycopy(keyBlocks, block + 1, keyBlocks, block, blockCount - block);
+        System.arraycopy(valueBlocks, block + 1, valueBlocks, block, blockCount - block);
+        System.arraycopy(blockSizes, block + 1, blockSizes, block, blockCount - block);
+        keyBlocks[blockCount] = null;
+        valueBlocks[blockCount] = null;
+    }
+
+    public class Cursor {
+        private int block;
+        private int index;
+
+        private Cursor() {
+        }
+
+        public boolean isValid() {
+            return block >= 0 && block < blockCount;
+        }
+
+        public long key() {
+            checkValid();
+            return keyBlocks[block][index];
+        }
+
+        public int value() {
+            checkValid();
+            return valueBlocks[block][index];
+        }
+
+        public void next() {
+            checkValid();
+            index++;
+            normalizeForward();
+        }
+
+        public void previous() {
+            checkValid();
+            index--;
+            normalizeBackward();
+        }
+
+        private void normalizeForward() {
+            while (block < blockCount && index >= blockSizes[block]) {
+                block++;
+                index = 0;
+            }
+        }
+
+        private void normalizeBackward() {
+            while (block >= 0 && index < 0) {
+                block--;
+                index = block >= 0 ? blockSizes[block] - 1 : 0;
+            }
+        }
+
+        private void checkValid() {
+            if (!isValid()) {
+                throw new NoSuchElementException("Курсор вышел за пределы отображения.");
+            }
+        }
+    }
+
+}
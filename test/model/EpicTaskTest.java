@@ -1,7 +1,19 @@
 package model;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import server.adapters.DurationAdapter;
+import server.adapters.LocalDateTimeAdapter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -74,4 +86,108 @@ public class EpicTaskTest {
         assertFalse(epic.getSubtasks().isEmpty());
     }
 
+    @Test
+    public void subtasksStayOrderedByIdAfterRemovals() {
+        for (int id = 1; id <= 50_000; id++) {
+            epic.addSubtask(id);
+        }
+        for (int id = 2; id <= 50_000; id += 2) {
+            epic.removeLinkedSubtask(id);
+        }
+        epic.addSubtask(7);
+        epic.addSubtask(100_000);
+
+        assertEquals(25_001, epic.getSubtasks().size());
+        assertEquals(1, epic.getSubtasks().getFirst());
+        assertEquals(100_000, epic.getSubtasks().getLast());
+        assertEquals(49_999, epic.getSubtasks().get(24_999));
+        assertTrue(epic.hasSubtask(49_999));
+        assertFalse(epic.hasSubtask(50_000));
+    }
+
+    @Test
+    public void subtasksAreWalkedSequentiallyInBothDirections() {
+        for (int id = 1; id <= 10; id++) {
+            epic.addSubtask(id);
+        }
+        for (int id = 1; id <= 10; id += 3) {
+            epic.removeLinkedSubtask(id);
+        }
+        List<Integer> subtasks = epic.getSubtasks();
+        List<Integer> reversed = new ArrayList<>();
+        for (ListIterator<Integer> it = subtasks.listIterator(subtasks.size()); it.hasPrevious(); ) {
+            reversed.add(it.previous());
+        }
+
+        assertEquals(List.of(9, 8, 6, 5, 3, 2), reversed);
+        assertEquals(List.of(5, 6, 8, 9), subtasks.subList(2, 6));
+        assertEquals(6, subtasks.listIterator(4).previous());
+        assertEquals(5, subtasks.listIterator(2).next());
+    }
+
+    @Test
+    public void readingSubtasksDoesNotChangeTheirOrder() throws InterruptedException {
+        for (int id = 1; id <= 10_000; id++) {
+            epic.addSubtask(id);
+        }
+        for (int id = 1; id <= 10_000; id += 3) {
+            epic.removeLinkedSubtask(id);
+        }
+        final List<Integer> expected = List.copyOf(epic.getSubtasks());
+        final List<Thread> readers = new ArrayList<>();
+        final AtomicBoolean consistent = new AtomicBoolean(true);
+        for (int i = 0; i < 4; i++) {
+            final Thread reader = new Thread(() -> {
+                for (int index = 0; index < expected.size(); index += 97) {
+                    if (!expected.get(index).equals(epic.getSubtasks().get(index))) {
+                        consistent.set(false);
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(consistent.get(), "Чтение не должно изменять набор подзадач.");
+        assertEquals(expected, epic.getSubtasks());
+        assertFalse(epic.hasSubtask(10_000));
+    }
+
+    @Test
+    public void subtasksAreSerializedAsJsonArray() {
+        epic.addSubtask(3);
+        epic.addSubtask(5);
+        epic.removeLinkedSubtask(3);
+        epic.addSubtask(4);
+        final Gson gson = new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+
+        final JsonObject json = gson.toJsonTree(epic).getAsJsonObject();
+        assertEquals("[4,5]", json.get("subtasks").toString());
+        assertEquals(List.of(4, 5), gson.fromJson(json, EpicTask.class).getSubtasks());
+    }
+
+    @Test
+    public void copiedEpicDoesNotShareSubtaskChanges() {
+        for (int id = 1; id <= 1_000; id++) {
+            epic.addSubtask(id);
+        }
+        final EpicTask copy = new EpicTask(epic);
+        copy.removeLinkedSubtask(500);
+        copy.addSubtask(2_000);
+        epic.removeLinkedSubtask(1);
+
+        assertEquals(1_000, copy.getSubtasks().size());
+        assertTrue(copy.hasSubtask(1));
+        assertFalse(copy.hasSubtask(500));
+        assertTrue(epic.hasSubtask(500));
+        assertFalse(epic.hasSubtask(2_000));
+        assertEquals(999, epic.getSubtasks().size());
+    }
+
 }
@@ -0,0 +1,93 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.adapters.DurationAdapter;
+import server.adapters.LocalDateTimeAdapter;
+import service.InMemoryTaskManager;
+import service.TaskManager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpBatchTest {
+    String baseUri = "http://localhost:8080/batch";
+    TaskManager manager;
+    HttpTaskServer server;
+    HttpClient client;
+    HttpRequest request;
+    Gson gson;
+    URI url;
+
+    public HttpBatchTest() {
+        manager = new InMemoryTaskManager();
+        server = new HttpTaskServer(manager);
+        gson = new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+    }
+
+    @BeforeEach
+    public void setUpBeforeEach() {
+        manager.deleteAllTasks();
+        manager.deleteAllSubtasks();
+        manager.deleteAllEpicTasks();
+        client = HttpClient.newHttpClient();
+        server.start();
+    }
+
+    @AfterEach
+    public void shutDownAfterEach() {
+        server.stop();
+    }
+
+    @Test
+    public void batchWasAppliedTest() throws IOException, InterruptedException {
+        String body = "{\"epics\":[{\"id\":10,\"title\":\"epic_t1\",\"description\":\"epic_d1\"}],"
+                + "\"tasks\":[{\"title\":\"task_t1\",\"description\":\"task_d1\",\"status\":\"NEW\"}],"
+                + "\"subtasks\":[{\"title\":\"sub_t1\",\"description\":\"sub_d1\",\"status\":\"DONE\","
+                + "\"duration\":\"PT30M\",\"startTime\":\"2024-06-01T12:00\",\"epicId\":10}]}";
+
+        url = URI.create(baseUri);
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode());
+        assertEquals(1, manager.getAllTasks().size(), "Задача из пакета не добавилась.");
+        assertEquals(1, manager.getSubtasksOfEpic(10).size(), "Подзадача из пакета не добавилась.");
+        assertEquals(TaskStatus.DONE, manager.getEpicTask(10).getStatus(), "Статус эпика не пересчитан.");
+    }
+
+    @Test
+    public void shouldReturn406IfBatchTasksOverlapTest() throws IOException, InterruptedException {
+        String body = "{\"tasks\":["
+                + "{\"title\":\"task_t1\",\"status\":\"NEW\",\"duration\":\"PT30M\",\"startTime\":\"2024-06-01T12:00\"},"
+                + "{\"title\":\"task_t2\",\"status\":\"NEW\",\"duration\":\"PT30M\",\"startTime\":\"2024-06-01T12:15\"}]}";
+
+        url = URI.create(baseUri);
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(406, response.statusCode());
+        assertEquals(0, manager.getAllTasks().size(), "Пакет не должен был примениться частично.");
+    }
+
+}
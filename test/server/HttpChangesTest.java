@@ -0,0 +1,81 @@
+package server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.InMemoryTaskManager;
+import service.TaskManager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpChangesTest {
+    String baseUri = "http://localhost:8080/changes";
+    TaskManager manager;
+    HttpTaskServer server;
+    HttpClient client;
+    HttpRequest request;
+    URI url;
+
+    public HttpChangesTest() {
+        manager = new InMemoryTaskManager();
+        server = new HttpTaskServer(manager);
+    }
+
+    @BeforeEach
+    public void setUpBeforeEach() {
+        manager.deleteAllTasks();
+        manager.deleteAllSubtasks();
+        manager.deleteAllEpicTasks();
+        client = HttpClient.newHttpClient();
+        server.start();
+    }
+
+    @AfterEach
+    public void shutDownAfterEach() {
+        server.stop();
+    }
+
+    @Test
+    public void changesAreReturnedAfterGivenSequenceTest() throws IOException, InterruptedException {
+        long since = manager.getLastChangeSequence();
+        Task task = new Task("Купить молоко", "в магазине у дома");
+        manager.createTask(task);
+        manager.deleteTask(task.getId());
+
+        url = URI.create(baseUri + "?since=" + since + "&limit=1");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonArray changes = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(200, response.statusCode());
+        assertEquals(1, changes.size());
+        assertEquals("CREATED", changes.get(0).getAsJsonObject().get("changeType").getAsString());
+        assertEquals(task.getId(), changes.get(0).getAsJsonObject().get("taskId").getAsInt());
+        assertEquals(String.valueOf(since + 1), response.headers().firstValue("X-Next-After").orElseThrow());
+    }
+
+    @Test
+    public void shouldReturn400IfSequenceIsInvalidTest() throws IOException, InterruptedException {
+        url = URI.create(baseUri + "?since=abc");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+}
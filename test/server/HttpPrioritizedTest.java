@@ -85,4 +85,37 @@ public class HttpPrioritizedTest {
         assertEquals(task1, prioritizedTasksFromServer.get(2), "Задача task1 должна быть первой, т.к. имеет dayOfMonth = 3.");
     }
 
+    @Test
+    public void onlyTasksOverlappingWindowWereReceivedTest() throws IOException, InterruptedException {
+        Task task1 = new Task(1, "task_t1", "task_d1", TaskStatus.NEW,
+                Duration.ofHours(30), LocalDateTime.of(2024, 5, 31, 12, 0));
+        Task task2 = new Task(2, "task_t2", "task_d2", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 3, 12, 0));
+        Task task3 = new Task(3, "task_t3", "task_d3", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 10, 12, 0));
+
+        manager.createTask(task1);
+        manager.createTask(task2);
+        manager.createTask(task3);
+
+        url = URI.create(baseUri + "?from=2024-06-01T00:00&to=2024-06-08T00:00");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<Task> window = gson.fromJson(response.body(), new TypeToken<List<Task>>(){}.getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(task1, task2), window);
+
+        url = URI.create(baseUri + "?from=2024-06-08T00:00&to=2024-06-01T00:00");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
 }
@@ -0,0 +1,91 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.adapters.DurationAdapter;
+import server.adapters.LocalDateTimeAdapter;
+import service.InMemoryTaskManager;
+import service.TaskManager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpSearchTest {
+    String baseUri = "http://localhost:8080/search";
+    TaskManager manager;
+    HttpTaskServer server;
+    HttpClient client;
+    HttpRequest request;
+    Gson gson;
+    URI url;
+
+    public HttpSearchTest() {
+        manager = new InMemoryTaskManager();
+        server = new HttpTaskServer(manager);
+        gson = new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+    }
+
+    @BeforeEach
+    public void setUpBeforeEach() {
+        manager.deleteAllTasks();
+        manager.deleteAllSubtasks();
+        manager.deleteAllEpicTasks();
+        client = HttpClient.newHttpClient();
+        server.start();
+    }
+
+    @AfterEach
+    public void shutDownAfterEach() {
+        server.stop();
+    }
+
+    @Test
+    public void tasksAreFoundByTextQueryTest() throws IOException, InterruptedException {
+        Task task1 = new Task("Купить молоко", "в магазине у дома");
+        Task task2 = new Task("Позвонить маме", "спросить про молоко");
+        manager.createTask(task1);
+        manager.createTask(task2);
+
+        url = URI.create(baseUri + "?q=" + URLEncoder.encode("Молоко", StandardCharsets.UTF_8));
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<Task> found = gson.fromJson(response.body(), new TypeToken<List<Task>>(){}.getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(task1, task2), found, "Совпадение в заголовке должно быть выше.");
+    }
+
+    @Test
+    public void shouldReturn400IfQueryIsMissingTest() throws IOException, InterruptedException {
+        url = URI.create(baseUri);
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+}
@@ -0,0 +1,92 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import model.Task;
+import model.TaskStatus;
+import model.TimeSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.adapters.DurationAdapter;
+import server.adapters.LocalDateTimeAdapter;
+import service.InMemoryTaskManager;
+import service.TaskManager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HttpSlotsTest {
+    String baseUri = "http://localhost:8080/slots";
+    TaskManager manager;
+    HttpTaskServer server;
+    HttpClient client;
+    HttpRequest request;
+    Gson gson;
+    URI url;
+
+    public HttpSlotsTest() {
+        manager = new InMemoryTaskManager();
+        server = new HttpTaskServer(manager);
+        gson = new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .create();
+    }
+
+    @BeforeEach
+    public void setUpBeforeEach() {
+        manager.deleteAllTasks();
+        manager.deleteAllSubtasks();
+        manager.deleteAllEpicTasks();
+        client = HttpClient.newHttpClient();
+        server.start();
+    }
+
+    @AfterEach
+    public void shutDownAfterEach() {
+        server.stop();
+    }
+
+    @Test
+    public void freeSlotsAfterBookedTaskWereReceivedTest() throws IOException, InterruptedException {
+        Task task1 = new Task(1, "task_t1", "task_d1", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 1, 12, 0));
+        manager.createTask(task1);
+
+        url = URI.create(baseUri + "?from=2024-06-01T12:10&duration=PT1H&count=2");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<TimeSlot> slots = gson.fromJson(response.body(), new TypeToken<List<TimeSlot>>(){}.getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(
+                new TimeSlot(LocalDateTime.of(2024, 6, 1, 12, 30), LocalDateTime.of(2024, 6, 1, 13, 30)),
+                new TimeSlot(LocalDateTime.of(2024, 6, 1, 13, 30), LocalDateTime.of(2024, 6, 1, 14, 30))), slots);
+    }
+
+    @Test
+    public void shouldReturn400IfDurationIsMissingTest() throws IOException, InterruptedException {
+        url = URI.create(baseUri + "?from=2024-06-01T12:10");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+}
@@ -23,6 +23,7 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -257,4 +258,48 @@ public class HttpSubtasksTest {
         assertEquals(404, response.statusCode());
     }
 
+    @Test
+    public void subtasksAreFilteredByStatusAndEpic() throws IOException, InterruptedException {
+        manager.createEpicTask(epic1);
+        Subtask sub1 = new Subtask(null, "sub_t1", "sub_d1", TaskStatus.DONE,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 1, 12, 0), epic1.getId());
+        Subtask sub2 = new Subtask(null, "sub_t2", "sub_d2", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 2, 12, 0), epic1.getId());
+        manager.createSubtask(sub1);
+        manager.createSubtask(sub2);
+
+        url = URI.create(baseUri + "?status=done&epic=" + epic1.getId());
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<Subtask> found = gson.fromJson(response.body(), new TypeToken<List<Subtask>>(){}.getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(sub1), found);
+
+        url = URI.create(baseUri + "?status=archived");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    public void statusFilterDoesNotDependOnDefaultLocale() throws IOException, InterruptedException {
+        manager.createEpicTask(epic1);
+        Subtask sub1 = new Subtask(null, "sub_t1", "sub_d1", TaskStatus.IN_PROGRESS,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 1, 12, 0), epic1.getId());
+        manager.createSubtask(sub1);
+
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            url = URI.create(baseUri + "?status=in_progress");
+            request = HttpRequest.newBuilder().uri(url).GET().build();
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        List<Subtask> found = gson.fromJson(response.body(), new TypeToken<List<Subtask>>(){}.getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(sub1), found);
+    }
+
 }
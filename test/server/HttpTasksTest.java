@@ -240,4 +240,59 @@ public class HttpTasksTest {
         assertEquals(404, response.statusCode());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldReturn400IfDurabilityIsUnknown() throws IOException, InterruptedException {
+        Task task1 = new Task(null, "task_t1", "task_d1", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 20, 17, 0));
+
+        url = URI.create(baseUri + "?durability=eventually");
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task1)))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+        assertEquals(0, manager.getAllTasks().size(), "Задача не должна была добавиться.");
+    }
+
+    @Test
+    public void taskWasAddedWhenDurabilityHeaderIsPresent() throws IOException, InterruptedException {
+        Task task1 = new Task(null, "task_t1", "task_d1", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, 6, 20, 17, 0));
+
+        url = URI.create(baseUri);
+        request = HttpRequest.newBuilder()
+                .uri(url)
+                .header("X-Durability", "async")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task1)))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode());
+        assertEquals(1, manager.getAllTasks().size(), "Количество задач должно было увеличиться на 1.");
+    }
+
+    @Test
+    public void tasksAreReturnedPageByPageWithCursorHeader() throws IOException, InterruptedException {
+        for (int i = 1; i <= 5; i++) {
+            manager.createTask(new Task(null, "task_t" + i, "task_d" + i, TaskStatus.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2024, 6, i, 12, 0)));
+        }
+        List<Task> all = manager.getAllTasks();
+
+        url = URI.create(baseUri + "?limit=2&after=" + all.get(1).getId());
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<Task> page = gson.fromJson(response.body(), new TypeToken<List<Task>>(){}.getType());
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of(all.get(2), all.get(3)), page);
+        assertEquals(String.valueOf(all.get(3).getId()), response.headers().firstValue("X-Next-After").orElse(null));
+
+        url = URI.create(baseUri + "?limit=-1");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+}
@@ -0,0 +1,86 @@
+package service;
+
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactTaskManagerTest extends TaskManagerTest<CompactTaskManager> {
+
+    @Override
+    @BeforeEach
+    public void beforeEach() {
+        manager = new CompactTaskManager();
+        super.beforeEach();
+    }
+
+    @Override
+    @Test
+    public void listsTakenBeforeUpdateKeepOldVersions() {
+        Subtask second = new Subtask("second", "d", epic.getId());
+        manager.createSubtask(second);
+        List<Subtask> before = manager.getAllSubtasks();
+
+        manager.updateSubtask(new Subtask(sub.getId(), "renamed", "d", TaskStatus.DONE, null, null, epic.getId()));
+        List<Subtask> after = manager.getAllSubtasks();
+
+        assertNotSame(before, after, "После изменения должен публиковаться новый список.");
+        assertEquals("SubtaskTitle_3", before.getFirst().getTitle(), "Старый список не должен меняться.");
+        assertEquals("renamed", after.getFirst().getTitle());
+        assertEquals(List.of(sub.getId(), second.getId()), after.stream().map(Task::getId).toList());
+    }
+
+    @Override
+    @Test
+    public void findTasksFollowsStatusChangesAndDeletions() {
+        EpicTask otherEpic = new EpicTask("other", "desc");
+        manager.createEpicTask(otherEpic);
+        Subtask done = new Subtask("done", "d", otherEpic.getId());
+        done.setStatus(TaskStatus.DONE);
+        manager.createSubtask(done);
+        Subtask progress = new Subtask("progress", "d", epic.getId());
+        progress.setStatus(TaskStatus.IN_PROGRESS);
+        manager.createSubtask(progress);
+
+        assertEquals(List.of(progress), manager.findTasks(TaskType.SUBTASK, TaskStatus.IN_PROGRESS, null));
+        assertEquals(List.of(storedEpic(otherEpic.getId())), manager.findTasks(TaskType.EPIC, TaskStatus.DONE, null));
+        assertEquals(List.of(storedEpic(epic.getId())), manager.findTasks(TaskType.EPIC, TaskStatus.IN_PROGRESS, null));
+        assertEquals(List.of(sub, progress), manager.findTasks(TaskType.SUBTASK, null, epic.getId()));
+
+        manager.updateSubtask(new Subtask(progress.getId(), "progress", "d", TaskStatus.DONE, null, null,
+                epic.getId()));
+        assertTrue(manager.findTasks(TaskType.SUBTASK, TaskStatus.IN_PROGRESS, null).isEmpty());
+
+        manager.deleteEpicTask(otherEpic.getId());
+        assertEquals(List.of(progress.getId()), manager.findTasks(TaskType.SUBTASK, TaskStatus.DONE, null).stream()
+                .map(Task::getId).toList());
+        assertTrue(manager.findTasks(TaskType.EPIC, TaskStatus.DONE, null).isEmpty());
+    }
+
+    @Test
+    public void returnedTasksAreDetachedFromStoredRows() {
+        Task stored = manager.getTask(task.getId());
+        stored.setTitle("changed outside");
+        task.setDescription("changed outside");
+
+        assertEquals("TaskTitle_1", manager.getTask(task.getId()).getTitle());
+        assertEquals("TaskDesc_1", manager.getTask(task.getId()).getDescription());
+    }
+
+    @Test
+    public void idsAreSharedAcrossTaskTypes() {
+        Task clash = new Task(epic.getId(), "clash", "d", TaskStatus.NEW, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(clash));
+        assertEquals(1, manager.getAllTasks().size());
+        assertEquals("EpicTitle_2", manager.getEpicTask(epic.getId()).getTitle());
+    }
+
+}
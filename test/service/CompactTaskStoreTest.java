@@ -0,0 +1,117 @@
+package service;
+
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactTaskStoreTest {
+    private final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+
+    @Test
+    public void tasksAreMaterializedWithAllFields() {
+        CompactTaskStore store = new CompactTaskStore();
+        Task task = new Task(1, "task", "desc", TaskStatus.IN_PROGRESS, Duration.ofMinutes(45), start);
+        EpicTask epic = new EpicTask(2, "epic", null, TaskStatus.NEW, Duration.ofMinutes(30), start.plusHours(1));
+        epic.setEndTime(start.plusHours(2));
+        Subtask subtask = new Subtask(3, "sub", "desc", TaskStatus.DONE, Duration.ofMinutes(30),
+                start.plusHours(1), 2);
+        store.put(task);
+        store.put(epic);
+        store.put(subtask);
+
+        Task storedTask = store.get(1);
+        assertEquals(task, storedTask);
+        assertEquals(Task.class, storedTask.getClass());
+        assertEquals(start.plusMinutes(45), storedTask.getEndTime());
+
+        EpicTask storedEpic = (EpicTask) store.get(2);
+        assertEquals(epic, storedEpic);
+        assertNull(storedEpic.getDescription());
+        assertEquals(start.plusHours(2), storedEpic.getEndTime());
+        assertEquals(List.of(3), storedEpic.getSubtasks());
+
+        Subtask storedSubtask = (Subtask) store.get(3);
+        assertEquals(subtask, storedSubtask);
+        assertEquals(2, storedSubtask.getEpicId());
+        assertEquals(start.plusHours(1), storedSubtask.getStartTime());
+        assertEquals(TaskType.SUBTASK, store.getType(3));
+        assertEquals(List.of(subtask), store.getAll(TaskType.SUBTASK));
+        assertNull(store.get(4));
+    }
+
+    @Test
+    public void rowsStayConsistentAfterUpdatesAndRemovals() {
+        CompactTaskStore store = new CompactTaskStore();
+        int count = 10_000;
+        for (int id = 1; id <= count; id++) {
+            store.put(new Subtask(id, "sub " + id % 10, "shared", TaskStatus.NEW, null, null, 100_000 + id % 3));
+        }
+        for (int id = 1; id <= count; id += 2) {
+            assertTrue(store.remove(id));
+        }
+        store.put(new Task(2, "moved", "shared", TaskStatus.DONE, null, null));
+
+        assertEquals(count / 2, store.size());
+        assertFalse(store.remove(1));
+        assertFalse(store.contains(9_999));
+        assertEquals("moved", store.get(2).getTitle());
+        assertEquals("sub 4", store.get(10_000 - 6).getTitle());
+        for (int id = 4; id <= count; id += 2) {
+            assertEquals(id, store.get(id).getId());
+        }
+        for (int epicId = 100_000; epicId < 100_003; epicId++) {
+            for (int id : store.getSubtaskIds(epicId)) {
+                assertEquals(epicId, ((Subtask) store.get(id)).getEpicId());
+            }
+        }
+        assertFalse(store.getAll(TaskType.SUBTASK).stream().anyMatch(task -> task.getId() == 2));
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertNull(store.get(2));
+    }
+
+    @Test
+    public void subSecondTimesAreRejected() {
+        CompactTaskStore store = new CompactTaskStore();
+        assertThrows(IllegalArgumentException.class, () -> store.put(new Task(1, "t", "d", TaskStatus.NEW,
+                Duration.ofMillis(1500), start)));
+        assertThrows(IllegalArgumentException.class, () -> store.put(new Task("t", "d")));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void textSurvivesReuseAndCompactionOfTheStringArena() {
+        CompactTaskStore store = new CompactTaskStore();
+        for (int round = 0; round < 5; round++) {
+            for (int id = 1; id <= 1000; id++) {
+                store.put(new Task(id, "Задача №" + id + " круг " + round, "описание ✓ " + id % 7, TaskStatus.NEW,
+                        null, null));
+            }
+        }
+        final String longText = "ж".repeat(70_000);
+        store.put(new Task(2, "long", longText, TaskStatus.NEW, null, null));
+        for (int id = 1; id <= 1000; id += 2) {
+            store.remove(id);
+        }
+
+        assertEquals(500, store.size());
+        assertEquals(longText, store.getDescription(2));
+        for (int id = 4; id <= 1000; id += 2) {
+            assertEquals("Задача №" + id + " круг 4", store.getTitle(id));
+            assertEquals("описание ✓ " + id % 7, store.getDescription(id));
+        }
+        assertNull(store.getTitle(1));
+    }
+
+}
@@ -0,0 +1,229 @@
+package service;
+
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    @Override
+    @BeforeEach
+    public void beforeEach() {
+        manager = new ConcurrentTaskManager();
+        super.beforeEach();
+    }
+
+    @Test
+    public void concurrentWritersAndReadersKeepEpicAndScheduleInvariants() throws Exception {
+        final int threads = 8;
+        final int subtasksPerThread = 300;
+        final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads + 2);
+        final CountDownLatch ready = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                ready.await();
+                final EpicTask ownEpic = new EpicTask("epic" + thread, "desc");
+                manager.createEpicTask(ownEpic);
+                final List<Subtask> created = new ArrayList<>();
+                for (int i = 0; i < subtasksPerThread; i++) {
+                    final boolean timed = i % 2 == 0;
+                    final Subtask subtask = new Subtask(null, "s" + i, "d", TaskStatus.NEW,
+                            timed ? Duration.ofMinutes(10) : null,
+                            timed ? start.plusMinutes(10L * (thread * subtasksPerThread + i)) : null,
+                            ownEpic.getId());
+                    manager.createSubtask(subtask);
+                    created.add(subtask);
+                    manager.createTask(new Task("t" + thread + "_" + i, "d"));
+                }
+                for (Subtask subtask : created) {
+                    manager.updateSubtask(new Subtask(subtask.getId(), subtask.getTitle(), "started",
+                            TaskStatus.IN_PROGRESS, subtask.getDuration(), subtask.getStartTime(), ownEpic.getId()));
+                }
+                for (Subtask subtask : created) {
+                    final LocalDateTime startTime = subtask.getStartTime() == null
+                            ? null
+                            : subtask.getStartTime().plusYears(1);
+                    manager.updateSubtask(new Subtask(subtask.getId(), subtask.getTitle(), "done", TaskStatus.DONE,
+                            subtask.getDuration(), startTime, ownEpic.getId()));
+                }
+                for (int i = 0; i < created.size(); i += 10) {
+                    manager.deleteSubtask(created.get(i).getId());
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                for (int i = 0; i < 200; i++) {
+                    assertSortedWithoutOverlaps(manager.getPrioritizedTasks());
+                    manager.getAllEpicTasks();
+                    final int id = ThreadLocalRandom.current().nextInt(1, manager.getId() + 1);
+                    manager.getAllSubtasks().stream()
+                            .filter(subtask -> subtask.getId() == id)
+                            .findFirst()
+                            .ifPresent(subtask -> manager.getSubtask(subtask.getId()));
+                }
+                return null;
+            }));
+        }
+
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        final Set<Integer> ids = new HashSet<>();
+        manager.getAllTasks().forEach(task -> ids.add(task.getId()));
+        manager.getAllEpicTasks().forEach(task -> ids.add(task.getId()));
+        manager.getAllSubtasks().forEach(task -> ids.add(task.getId()));
+        assertEquals(manager.getId() - threads * (subtasksPerThread / 10), ids.size(),
+                "Идентификаторы не должны теряться или повторяться.");
+        assertEquals(1 + threads * subtasksPerThread, manager.getAllTasks().size());
+        assertEquals(1 + threads * (subtasksPerThread - subtasksPerThread / 10), manager.getAllSubtasks().size());
+
+        final List<Task> prioritized = manager.getPrioritizedTasks();
+        assertSortedWithoutOverlaps(prioritized);
+        assertEquals(threads * (subtasksPerThread / 2 - subtasksPerThread / 10), prioritized.size());
+        for (EpicTask e : manager.getAllEpicTasks()) {
+            if (e.getId() == epic.getId()) {
+                continue;
+            }
+            assertEquals(TaskStatus.DONE, e.getStatus(), "Статус эпика не согласован с подзадачами.");
+            final List<Subtask> subtasks = manager.getSubtasksOfEpic(e.getId());
+            assertEquals(subtasksPerThread - subtasksPerThread / 10, subtasks.size());
+            assertEquals(subtasks.stream().map(Subtask::getStartTime).filter(Objects::nonNull)
+                            .min(LocalDateTime::compareTo).orElseThrow(),
+                    e.getStartTime(), "Время начала эпика не согласовано с подзадачами.");
+            assertEquals(subtasks.stream().map(Subtask::getEndTime).filter(Objects::nonNull)
+                            .max(LocalDateTime::compareTo).orElseThrow(),
+                    e.getEndTime(), "Время окончания эпика не согласовано с подзадачами.");
+        }
+    }
+
+    @Test
+    public void readersSeeEpicsConsistentWithSubtasksWhileSubtasksAreUpdated() throws Exception {
+        final int epics = 4;
+        final int subtasksPerEpic = 4;
+        final int rounds = 500;
+        final LocalDateTime start = LocalDateTime.of(2025, Month.MARCH, 1, 9, 0);
+        final List<Subtask> created = new ArrayList<>();
+        final Set<Integer> epicIds = new HashSet<>();
+        for (int e = 0; e < epics; e++) {
+            final EpicTask ownEpic = new EpicTask("epic" + e, "desc");
+            manager.createEpicTask(ownEpic);
+            epicIds.add(ownEpic.getId());
+            for (int i = 0; i < subtasksPerEpic; i++) {
+                final Subtask subtask = new Subtask(null, "s" + i, "d", TaskStatus.NEW, Duration.ofMinutes(10),
+                        start.plusHours(e * subtasksPerEpic + i), ownEpic.getId());
+                manager.createSubtask(subtask);
+                created.add(subtask);
+            }
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(created.size() + 2);
+        final CountDownLatch ready = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final List<Future<?>> writers = new ArrayList<>();
+        final List<Future<?>> readers = new ArrayList<>();
+        for (Subtask subtask : created) {
+            writers.add(executor.submit(() -> {
+                ready.await();
+                final TaskStatus[] statuses = TaskStatus.values();
+                for (int i = 0; i < rounds; i++) {
+                    manager.updateSubtask(new Subtask(subtask.getId(), subtask.getTitle(), "d",
+                            statuses[i % statuses.length], subtask.getDuration(),
+                            subtask.getStartTime().plusMinutes(i % 4 * 12), subtask.getEpicId()));
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            readers.add(executor.submit(() -> {
+                ready.await();
+                while (writing.get()) {
+                    final TaskSnapshot snapshot = manager.getSnapshot();
+                    final Map<Integer, Subtask> subtasks = new HashMap<>();
+                    snapshot.getSubtasks().forEach(subtask -> subtasks.put(subtask.getId(), subtask));
+                    for (Task task : snapshot.getPrioritizedTasks()) {
+                        if (task.getType() == TaskType.SUBTASK) {
+                            assertSame(subtasks.get(task.getId()), task, "Расписание и список подзадач расходятся.");
+                        }
+                    }
+                    for (EpicTask e : snapshot.getEpics()) {
+                        if (!epicIds.contains(e.getId())) {
+                            continue;
+                        }
+                        final List<Subtask> own = e.getSubtasks().stream().map(subtasks::get).toList();
+                        assertEquals(own.stream().map(Subtask::getStartTime).min(LocalDateTime::compareTo)
+                                .orElseThrow(), e.getStartTime(), "Время начала эпика не согласовано с подзадачами.");
+                        assertEquals(own.stream().map(Subtask::getEndTime).max(LocalDateTime::compareTo)
+                                .orElseThrow(), e.getEndTime(), "Время окончания эпика не согласовано с подзадачами.");
+                        final Set<TaskStatus> statuses = new HashSet<>();
+                        own.forEach(subtask -> statuses.add(subtask.getStatus()));
+                        final TaskStatus expected = statuses.size() == 1
+                                && !statuses.contains(TaskStatus.IN_PROGRESS)
+                                ? statuses.iterator().next()
+                                : TaskStatus.IN_PROGRESS;
+                        assertEquals(expected, e.getStatus(), "Статус эпика не согласован с подзадачами.");
+                    }
+                }
+                return null;
+            }));
+        }
+
+        ready.countDown();
+        try {
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            writing.set(false);
+        }
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+        assertEquals(created.size(), manager.getPrioritizedTasks().size());
+    }
+
+    private static void assertSortedWithoutOverlaps(List<Task> prioritized) {
+        for (int i = 1; i < prioritized.size(); i++) {
+            final Task previous = prioritized.get(i - 1);
+            assertFalse(previous.getEndTime().isAfter(prioritized.get(i).getStartTime()),
+                    "Задачи в расписании не должны пересекаться.");
+        }
+        assertTrue(prioritized.stream().allMatch(task -> task.getStartTime() != null));
+    }
+
+}
@@ -1,13 +1,18 @@
 package service;
 
 import exceptions.LoadingFromFileException;
+import exceptions.TaskNotFoundException;
 import model.EpicTask;
 import model.Subtask;
 import model.Task;
 import model.TaskStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import util.CSVFormatter;
+import util.Compression;
+import util.SnapshotFormat;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -16,8 +21,17 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
     private Path backupFile;
@@ -100,8 +114,8 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         manager.createTask(task2);
 
         TaskManager newManager = FileBackedTaskManager.loadFromFile(backupFile.toFile());
-        ArrayList<Task> oldTasksList = manager.getPrioritizedTasks();
-        ArrayList<Task> newTasksList = (ArrayList<Task>) newManager.getPrioritizedTasks();
+        List<Task> oldTasksList = manager.getPrioritizedTasks();
+        List<Task> newTasksList = newManager.getPrioritizedTasks();
 
         assertEquals(oldTasksList.size(), newTasksList.size(), "Размеры списков должны быть равны.");
 
@@ -112,4 +126,505 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
 
     }
 
-}
\ No newline at end of file
+    private Path createTempJournal() {
+        try {
+            final Path journalFile = Files.createTempFile(Paths.get("test_resources"), "journalFileTest", ".log");
+            journalFile.toFile().deleteOnExit();
+            return journalFile;
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при создании временного файла journalFileTest.", e);
+        }
+    }
+
+    @Test
+    public void journaledManagerAppendsOneRecordPerMutationWithoutRewritingSnapshot() throws IOException {
+        final Path snapshot = Paths.get("test_resources", "missingSnapshotTest.csv");
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = new FileBackedTaskManager(snapshot.toFile(), journalFile.toFile());
+
+        final Task task1 = new Task("t1", "d1");
+        journaled.createTask(task1);
+        task1.setStatus(TaskStatus.IN_PROGRESS);
+        journaled.updateTask(task1);
+        journaled.createTask(new Task("t2", "d2"));
+        journaled.close();
+
+        final List<String> records = Files.readAllLines(journalFile);
+        assertEquals(3, records.size(), "Каждая операция должна добавлять в журнал одну запись.");
+        assertFalse(Files.exists(snapshot), "В режиме журнала снимок не должен перезаписываться.");
+    }
+
+    @Test
+    public void batchIsJournaledInOneCommitAndRestored() {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        final List<Task> batch = new ArrayList<>();
+        batch.add(new EpicTask(100, "EpicTitle_100", "EpicDesc_100", TaskStatus.NEW, null, null));
+        for (int i = 0; i < 20; i++) {
+            batch.add(new Subtask(null, "SubTitle_" + i, "SubDesc", TaskStatus.IN_PROGRESS,
+                    Duration.ofMinutes(30), LocalDateTime.of(2024, Month.MAY, 1, 9, 0).plusHours(i), 100));
+        }
+        final long batchesBefore = journaled.getJournal().getCommittedBatches();
+        journaled.runWithDurability(Durability.SYNC, () -> journaled.applyBatch(batch));
+        assertEquals(batchesBefore + 1, journaled.getJournal().getCommittedBatches(),
+                "Пакет должен сохраняться одной записью в журнал.");
+        journaled.close();
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(20, restored.getSubtasksOfEpic(100).size(), "Подзадачи пакета не восстановлены.");
+        assertEquals(TaskStatus.IN_PROGRESS, restored.getEpicTask(100).getStatus(), "Статус эпика не пересчитан.");
+    }
+
+    @Test
+    public void tornBatchIsDroppedAsAWhole() throws IOException {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        final Task single = new Task("single", "d");
+        journaled.createTask(single);
+        final List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Task("batch_" + i, "d"));
+        }
+        journaled.applyBatch(batch);
+        journaled.close();
+
+        final byte[] content = Files.readAllBytes(journalFile);
+        Files.write(journalFile, Arrays.copyOf(content, content.length - 20));
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile(), null, RecoveryMode.TRUNCATE_TORN_TAIL);
+        assertEquals(single, restored.getTask(single.getId()), "Запись до пакета потеряна.");
+        assertEquals(2, restored.getAllTasks().size(), "Поврежденный пакет не должен применяться частично.");
+    }
+
+    @Test
+    public void journaledManagerRestoresStateFromSnapshotAndJournal() {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+
+        final EpicTask epic6 = new EpicTask("EpicTitle_6", "EpicDesc_6");
+        journaled.createEpicTask(epic6);
+        final Subtask sub7 = new Subtask(null, "SubTitle_7", "SubDesc_7", TaskStatus.DONE,
+                Duration.ofMinutes(30), LocalDateTime.of(2024, Month.MAY, 1, 9, 0), epic6.getId());
+        journaled.createSubtask(sub7);
+        journaled.deleteTask(task.getId());
+        journaled.deleteEpicTask(epic.getId());
+        journaled.close();
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+
+        assertEquals(0, restored.getAllTasks().size(), "Удаленная задача не должна восстанавливаться.");
+        assertEquals(1, restored.getAllEpicTasks().size(), "Количество эпиков не совпадает.");
+        assertEquals(1, restored.getAllSubtasks().size(), "Подзадачи удаленного эпика не должны восстанавливаться.");
+        assertEquals(sub7, restored.getSubtask(sub7.getId()), "Подзадачи не совпадают.");
+        assertEquals(TaskStatus.DONE, restored.getEpicTask(epic6.getId()).getStatus(), "Статус эпика не пересчитан.");
+        assertEquals(sub7.getEndTime(), restored.getEpicTask(epic6.getId()).getEndTime(),
+                "Время окончания эпика не пересчитано.");
+        assertEquals(journaled.getId(), restored.getId(), "Счетчик id не восстановлен.");
+        assertThrows(TaskNotFoundException.class, () -> restored.getEpicTask(epic.getId()));
+    }
+
+    @Test
+    public void compactionWritesSnapshotAndTruncatesJournal() throws IOException {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        journaled.enableCompaction(new CompactionPolicy(Long.MAX_VALUE, Long.MAX_VALUE, Duration.ofDays(1)));
+
+        final Task task5 = new Task("TaskTitle_5", "TaskDesc_5");
+        journaled.createTask(task5);
+        journaled.deleteTask(task.getId());
+        journaled.getCompactor().compact();
+
+        final Task task6 = new Task("TaskTitle_6", "TaskDesc_6");
+        journaled.createTask(task6);
+        final CompactionStats stats = journaled.getCompactionStats();
+        journaled.close();
+
+        assertEquals(1, stats.getCompactions(), "Количество сжатий не совпадает.");
+        assertEquals(1, stats.getJournalRecords(), "После сжатия журнал должен содержать только новые записи.");
+        assertEquals(1, Files.readAllLines(journalFile).size(), "Журнал не был усечен.");
+
+        final FileBackedTaskManager snapshotOnly = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+        assertEquals(List.of(task5), snapshotOnly.getAllTasks(), "Снимок не содержит состояние до сжатия.");
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(List.of(task5, task6), restored.getAllTasks(), "Задачи после восстановления не совпадают.");
+        assertEquals(1, restored.getAllSubtasks().size(), "Количество подзадач не совпадает.");
+    }
+
+    @Test
+    public void compactionStartsInBackgroundWhenThresholdExceeded() throws InterruptedException {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        journaled.enableCompaction(new CompactionPolicy(Long.MAX_VALUE, 2, Duration.ofMillis(50)));
+
+        journaled.createTask(new Task("TaskTitle_5", "TaskDesc_5"));
+        journaled.createTask(new Task("TaskTitle_6", "TaskDesc_6"));
+
+        for (int i = 0; i < 100 && journaled.getCompactionStats().getCompactions() == 0; i++) {
+            Thread.sleep(50);
+        }
+        final CompactionStats stats = journaled.getCompactionStats();
+        journaled.close();
+
+        assertTrue(stats.getCompactions() > 0, "Фоновое сжатие не было выполнено.");
+        assertTrue(stats.getLastSnapshotBytes() > 0, "Размер снимка не отражен в статистике.");
+    }
+
+    @Test
+    public void concurrentWritersShareGroupCommits() throws Exception {
+        final int writers = 50;
+        final int tasksPerWriter = 20;
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        final List<Future<?>> results = new ArrayList<>();
+
+        for (int i = 0; i < writers; i++) {
+            results.add(executor.submit(() -> {
+                for (int j = 0; j < tasksPerWriter; j++) {
+                    journaled.createTask(new Task("title", "desc"));
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        final long committedRecords = journaled.getJournal().getCommittedRecords();
+        final long committedBatches = journaled.getJournal().getCommittedBatches();
+        journaled.close();
+
+        assertEquals(writers * tasksPerWriter, committedRecords, "Не все записи подтверждены журналом.");
+        assertTrue(committedBatches <= committedRecords, "Количество пакетов не может превышать количество записей.");
+        assertEquals(writers * tasksPerWriter, Files.readAllLines(journalFile).size(),
+                "Количество записей в журнале не совпадает.");
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(writers * tasksPerWriter + 1, restored.getAllTasks().size(),
+                "Количество задач после восстановления не совпадает.");
+    }
+
+    @Test
+    public void operationsWithDurabilityNoneAreJournaledWithoutWaiting() throws IOException {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+
+        journaled.runWithDurability(Durability.NONE, () -> journaled.createTask(new Task("t5", "d5")));
+        journaled.runWithDurability(Durability.ASYNC, () -> journaled.createTask(new Task("t6", "d6")));
+        journaled.createTask(new Task("t7", "d7"));
+        journaled.runWithDurability(Durability.NONE, () -> journaled.deleteTask(task.getId()));
+        final EpicTask noneEpic = new EpicTask("e8", "d8");
+        journaled.runWithDurability(Durability.NONE, () -> journaled.createEpicTask(noneEpic));
+        final Subtask syncSub = new Subtask("s9", "d9", noneEpic.getId());
+        journaled.createSubtask(syncSub);
+        journaled.close();
+
+        final List<String> records = Files.readAllLines(journalFile);
+        assertEquals(6, records.size(), "Операции с уровнем NONE должны попадать в журнал.");
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertThrows(TaskNotFoundException.class, () -> restored.getTask(task.getId()),
+                "Удаление с уровнем NONE не должно откатываться после перезапуска.");
+        assertEquals(syncSub, restored.getSubtask(syncSub.getId()),
+                "Подзадача с уровнем SYNC не должна теряться из-за эпика с уровнем NONE.");
+        assertEquals(List.of(syncSub.getId()), restored.getEpicTask(noneEpic.getId()).getSubtasks());
+    }
+
+    @Test
+    public void snapshotIsNotRewrittenForDurabilityNoneUntilClose() {
+        manager.setDefaultDurability(Durability.NONE);
+        manager.createTask(new Task("t5", "d5"));
+
+        assertEquals(manager.getAllTasks().size(),
+                FileBackedTaskManager.loadFromFile(backupFile.toFile()).getAllTasks().size() + 1,
+                "Снимок не должен перезаписываться при уровне NONE.");
+
+        manager.close();
+        assertEquals(manager.getAllTasks().size(),
+                FileBackedTaskManager.loadFromFile(backupFile.toFile()).getAllTasks().size(),
+                "Несохраненные изменения должны записываться при закрытии.");
+    }
+
+    @Test
+    public void binarySnapshotIsRestoredWithFormatDetection() throws IOException {
+        final Subtask sub4 = new Subtask(null, "Подзадача", "Описание, с запятой", TaskStatus.DONE,
+                Duration.ofMinutes(45), LocalDateTime.of(2024, Month.MAY, 1, 9, 0, 30), epic.getId());
+        manager.createSubtask(sub4);
+        manager.setSnapshotFormat(SnapshotFormat.BINARY);
+        manager.createTask(new Task("TaskTitle_5", "TaskDesc_5"));
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+
+        assertEquals(SnapshotFormat.BINARY, restored.getSnapshotFormat(), "Формат снимка не определен.");
+        assertEquals(manager.getAllTasks(), restored.getAllTasks(), "Задачи не совпадают.");
+        assertEquals(manager.getAllEpicTasks(), restored.getAllEpicTasks(), "Эпики не совпадают.");
+        assertEquals(manager.getAllSubtasks(), restored.getAllSubtasks(), "Подзадачи не совпадают.");
+        assertEquals(sub4.getStartTime(), restored.getSubtask(sub4.getId()).getStartTime(),
+                "Время начала подзадачи не совпадает.");
+        assertEquals(manager.getEpicTask(epic.getId()).getEndTime(), restored.getEpicTask(epic.getId()).getEndTime(),
+                "Время окончания эпика не совпадает.");
+    }
+
+    @Test
+    public void binarySnapshotIsSmallerThanCsvExport() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task(null, "title " + i, "description " + i, TaskStatus.IN_PROGRESS,
+                    Duration.ofMinutes(30), LocalDateTime.of(2024, Month.MAY, 1, 9, 0).plusHours(i)));
+        }
+        manager.setSnapshotFormat(SnapshotFormat.BINARY);
+        manager.deleteTask(task.getId());
+
+        final Path csvFile = Files.createTempFile(Paths.get("test_resources"), "exportTest", ".csv");
+        csvFile.toFile().deleteOnExit();
+        manager.exportToCsv(csvFile.toFile());
+
+        assertTrue(Files.size(backupFile) < Files.size(csvFile), "Бинарный снимок должен быть компактнее CSV.");
+        assertEquals(SnapshotFormat.CSV, FileBackedTaskManager.loadFromFile(csvFile.toFile()).getSnapshotFormat());
+        assertEquals(manager.getAllTasks(), FileBackedTaskManager.loadFromFile(csvFile.toFile()).getAllTasks(),
+                "Задачи из экспорта не совпадают.");
+    }
+
+    @Test
+    public void snapshotWithForeignLineSeparatorIsLoadedWithProgress() throws IOException {
+        final String separator = System.lineSeparator().equals("\n") ? "\r\n" : "\n";
+        Files.writeString(backupFile, String.join(separator,
+                "ID,TYPE,TITLE,STATUS,DESCRIPTION,DURATION,START_TIME,EPIC_ID(ONLY_FOR_SUBTASKS)",
+                "1,TASK,t1,NEW,d1,30,2024-05-01T09:00,",
+                "2,EPIC,e2,NEW,d2,null,null,",
+                "3,SUBTASK,s3,DONE,d3,null,null,2") + separator);
+        final long[] lastProgress = new long[3];
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(), null,
+                (bytesRead, totalBytes, tasksLoaded) -> {
+                    lastProgress[0] = bytesRead;
+                    lastProgress[1] = totalBytes;
+                    lastProgress[2] = tasksLoaded;
+                });
+
+        assertEquals(1, restored.getAllTasks().size(), "Количество задач не совпадает.");
+        assertEquals(TaskStatus.DONE, restored.getEpicTask(2).getStatus(), "Статус эпика не совпадает.");
+        assertEquals(Files.size(backupFile), lastProgress[0], "Файл должен быть прочитан полностью.");
+        assertEquals(Files.size(backupFile), lastProgress[1], "Размер файла не совпадает.");
+        assertEquals(3, lastProgress[2], "Количество загруженных задач не совпадает.");
+    }
+
+    @Test
+    public void parallelLoaderRestoresSameStateAsSequentialLoader() throws IOException {
+        final StringBuilder csv = new StringBuilder(CSVFormatter.getHeader()).append(System.lineSeparator());
+        final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        int id = 0;
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(CSVFormatter.taskToString(new Task(++id, "Задача " + i, "desc " + i, TaskStatus.NEW,
+                    Duration.ofMinutes(30), start.plusHours(id)))).append(System.lineSeparator());
+        }
+        for (int i = 0; i < 20; i++) {
+            final int epicId = ++id;
+            csv.append(CSVFormatter.taskToString(new EpicTask(epicId, "epic " + i, "Описание эпика " + i,
+                    TaskStatus.NEW, null, null))).append(System.lineSeparator());
+            for (int j = 0; j < 100; j++) {
+                csv.append(CSVFormatter.taskToString(new Subtask(++id, "sub " + j, "desc " + j,
+                        TaskStatus.values()[j % 3], Duration.ofMinutes(30), start.plusHours(id), epicId)))
+                        .append(System.lineSeparator());
+            }
+        }
+        Files.writeString(backupFile, csv);
+
+        final FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+        final FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileInParallel(backupFile.toFile(), null,
+                new ForkJoinPool(4));
+
+        assertEquals(sequential.getAllTasks(), parallel.getAllTasks(), "Задачи не совпадают.");
+        assertEquals(sequential.getAllEpicTasks(), parallel.getAllEpicTasks(), "Эпики не совпадают.");
+        assertEquals(sequential.getAllSubtasks(), parallel.getAllSubtasks(), "Подзадачи не совпадают.");
+        assertEquals(sequential.getPrioritizedTasks(), parallel.getPrioritizedTasks(), "Приоритеты не совпадают.");
+        assertEquals(sequential.getId(), parallel.getId(), "Счетчик id не совпадает.");
+        for (EpicTask e : sequential.getAllEpicTasks()) {
+            assertEquals(e.getSubtasks(), parallel.getEpicTask(e.getId()).getSubtasks(), "Связи эпика не совпадают.");
+        }
+    }
+
+    @Test
+    public void parallelLoadSplitsOnlyBetweenRecordsWhenTextSpansLines() throws IOException {
+        final StringBuilder csv = new StringBuilder(CSVFormatter.getHeader()).append(System.lineSeparator());
+        final String fakeRecord = "\n1,TASK,\"fake\",NEW,x,null,null,\n\"\"\n";
+        for (int id = 1; id <= 40_000; id++) {
+            csv.append(CSVFormatter.taskToString(new Task(id, "Задача " + id, "строка " + id + fakeRecord.repeat(3),
+                    TaskStatus.NEW, null, null))).append(System.lineSeparator());
+        }
+        Files.writeString(backupFile, csv);
+
+        final FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+        final FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileInParallel(backupFile.toFile(), null,
+                new ForkJoinPool(4));
+
+        assertTrue(Files.size(backupFile) > 4L * 1024 * 1024, "Файл должен делиться на несколько частей.");
+        assertEquals(40_000, parallel.getAllTasks().size(), "Количество задач не совпадает.");
+        assertEquals(sequential.getAllTasks(), parallel.getAllTasks(), "Задачи не совпадают.");
+    }
+
+    @Test
+    public void titlesWithCommasQuotesAndLineBreaksSurviveSnapshotAndJournal() {
+        final Path journalFile = createTempJournal();
+        final Task tricky = new Task(null, "Купить молоко, хлеб", "Сказать \"спасибо\"\nи уйти", TaskStatus.NEW,
+                Duration.ofMinutes(15), LocalDateTime.of(2024, Month.MAY, 1, 9, 0, 15, 500_000_000));
+        manager.createTask(tricky);
+        final Task nullTitle = new Task(null, "null", "", TaskStatus.NEW, null, null);
+        manager.createTask(nullTitle);
+
+        final FileBackedTaskManager fromSnapshot = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+        assertEquals(manager.getAllTasks(), fromSnapshot.getAllTasks(), "Задачи из снимка не совпадают.");
+        assertEquals(tricky.getStartTime(), fromSnapshot.getTask(tricky.getId()).getStartTime(),
+                "Время начала не совпадает.");
+
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        final Task updated = new Task(tricky.getId(), "Новое, \"название\"", tricky.getDescription(),
+                TaskStatus.IN_PROGRESS, tricky.getDuration(), tricky.getStartTime().plusDays(1));
+        journaled.updateTask(updated);
+        journaled.close();
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(updated, restored.getTask(tricky.getId()), "Задача из журнала не совпадает.");
+        assertEquals(nullTitle, restored.getTask(nullTitle.getId()), "Строка \"null\" не должна стать null.");
+
+        final FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileInParallel(backupFile.toFile(), null);
+        assertEquals(fromSnapshot.getAllTasks(), parallel.getAllTasks(), "Задачи параллельной загрузки не совпадают.");
+    }
+
+    @Test
+    public void gzipSnapshotIsRestoredAndSmallerThanPlainSnapshot() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task(null, "title " + i, "description " + i, TaskStatus.IN_PROGRESS,
+                    Duration.ofMinutes(30), LocalDateTime.of(2024, Month.MAY, 1, 9, 0).plusHours(i)));
+        }
+        final long plainSize = Files.size(backupFile);
+        manager.setSnapshotCompression(Compression.GZIP);
+        manager.deleteTask(task.getId());
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+        assertTrue(Files.size(backupFile) < plainSize, "Сжатый снимок должен быть компактнее.");
+        assertEquals(Compression.GZIP, restored.getSnapshotCompression(), "Сжатие снимка не определено.");
+        assertEquals(manager.getAllTasks(), restored.getAllTasks(), "Задачи не совпадают.");
+        assertEquals(manager.getAllSubtasks(), restored.getAllSubtasks(), "Подзадачи не совпадают.");
+        assertEquals(manager.getAllTasks(),
+                FileBackedTaskManager.loadFromFileInParallel(backupFile.toFile(), null).getAllTasks(),
+                "Задачи параллельной загрузки не совпадают.");
+    }
+
+    @Test
+    public void compressedJournalIsReplayedAcrossReopens() {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        journaled.createTask(new Task("t1", "d1"));
+        journaled.setJournalCompression(Compression.GZIP);
+        final Task task2 = new Task("t2", "d2");
+        journaled.createTask(task2);
+        journaled.deleteTask(task.getId());
+        journaled.close();
+
+        final FileBackedTaskManager reopened = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        reopened.createTask(new Task("t3", "d3"));
+        reopened.close();
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(reopened.getAllTasks(), restored.getAllTasks(), "Задачи из журнала не совпадают.");
+        assertEquals(3, restored.getAllTasks().size(), "Количество задач не совпадает.");
+        assertEquals(task2, restored.getTask(task2.getId()), "Задача из сжатого сегмента не совпадает.");
+        restored.close();
+        for (File segment : restored.getJournal().getSealedSegments()) {
+            segment.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void tornJournalTailIsTruncatedToLastValidRecord() throws IOException {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        final Task task5 = new Task("t5", "d5");
+        journaled.createTask(task5);
+        journaled.createTask(new Task("t6", "d6"));
+        journaled.close();
+
+        final long validLength = Files.readAllLines(journalFile).getFirst().length()
+                + System.lineSeparator().length();
+        final byte[] content = Files.readAllBytes(journalFile);
+        Files.write(journalFile, Arrays.copyOf(content, content.length - 5));
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile(), null, RecoveryMode.TRUNCATE_TORN_TAIL);
+        assertEquals(2, restored.getAllTasks().size(), "Должны восстановиться записи до поврежденной.");
+        assertEquals(task5, restored.getTask(task5.getId()), "Задачи не совпадают.");
+        assertEquals(validLength, Files.size(journalFile), "Поврежденный хвост журнала не усечен.");
+
+        final Task task7 = new Task("t7", "d7");
+        restored.createTask(task7);
+        restored.close();
+        final FileBackedTaskManager reopened = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(restored.getAllTasks(), reopened.getAllTasks(), "Записи после усечения не восстановлены.");
+    }
+
+    @Test
+    public void journalRecordWithBadChecksumIsSealedAndLaterRecordsSurvive() throws IOException {
+        final Path journalFile = createTempJournal();
+        final FileBackedTaskManager journaled = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        final Task task5 = new Task("t5", "d5");
+        journaled.createTask(task5);
+        journaled.createTask(new Task("t6", "d6"));
+        journaled.close();
+
+        final List<String> records = Files.readAllLines(journalFile);
+        Files.write(journalFile, List.of(records.get(0), records.get(1).replace("t6", "t9")));
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(2, restored.getAllTasks().size(), "Запись с неверной контрольной суммой применена.");
+        assertFalse(Files.exists(journalFile), "Поврежденный сегмент должен быть запечатан.");
+
+        final Task task7 = new Task("t7", "d7");
+        restored.createTask(task7);
+        restored.close();
+        final FileBackedTaskManager reopened = FileBackedTaskManager.loadFromFile(backupFile.toFile(),
+                journalFile.toFile());
+        assertEquals(task7, reopened.getTask(task7.getId()), "Запись после поврежденного сегмента потеряна.");
+        assertEquals(3, reopened.getAllTasks().size(), "Количество задач не совпадает.");
+        for (File segment : reopened.getJournal().getSealedSegments()) {
+            segment.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void tornBinarySnapshotIsRestoredUpToLastValidRecord() throws IOException {
+        manager.createTask(new Task("t5", "d5"));
+        manager.setSnapshotFormat(SnapshotFormat.BINARY);
+        manager.createTask(new Task("t6", "d6"));
+        final byte[] content = Files.readAllBytes(backupFile);
+        Files.write(backupFile, Arrays.copyOf(content, content.length - 3));
+
+        final FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(backupFile.toFile());
+        assertEquals(manager.getAllTasks(), restored.getAllTasks(), "Задачи не совпадают.");
+        assertEquals(manager.getAllSubtasks().size() - 1, restored.getAllSubtasks().size(),
+                "Поврежденная запись не должна восстанавливаться.");
+    }
+
+}
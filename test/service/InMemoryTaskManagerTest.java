@@ -1,6 +1,12 @@
 package service;
 
+import exceptions.ChangeFeedTruncatedException;
+import model.Task;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
 
@@ -11,4 +17,17 @@ public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager
         super.beforeEach();
     }
 
+    @Test
+    public void overwrittenChangesRequireFullResync() {
+        manager.changeFeed = new ChangeFeed(4);
+        for (int i = 0; i < 6; i++) {
+            manager.createTask(new Task("task " + i, "d"));
+        }
+
+        assertThrows(ChangeFeedTruncatedException.class, () -> manager.getChangesSince(0, 10));
+        assertThrows(ChangeFeedTruncatedException.class, () -> manager.getChangesSince(1, 10));
+        assertEquals(4, manager.getChangesSince(2, 10).size());
+        assertEquals(0, manager.getChangesSince(6, 10).size());
+    }
+
 }
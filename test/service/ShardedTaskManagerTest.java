@@ -0,0 +1,159 @@
+package service;
+
+import exceptions.InvalidReceivedTimeException;
+import exceptions.TaskNotFoundException;
+import model.EpicTask;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedTaskManagerTest extends TaskManagerTest<ShardedTaskManager> {
+
+    @Override
+    @BeforeEach
+    public void beforeEach() {
+        manager = new ShardedTaskManager(4);
+        super.beforeEach();
+    }
+
+    @Test
+    public void scheduleConflictsAreDetectedAcrossShardsAndListsAreMerged() {
+        final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        final List<Task> created = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final EpicTask owner = new EpicTask("epic" + i, "d");
+            manager.createEpicTask(owner);
+            final Subtask subtask = new Subtask(null, "sub" + i, "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                    start.plusHours(40 - i), owner.getId());
+            manager.createSubtask(subtask);
+            created.add(subtask);
+        }
+
+        for (Task scheduled : created) {
+            final Task clash = new Task(null, "clash", "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                    scheduled.getStartTime().plusMinutes(10));
+            assertThrows(InvalidReceivedTimeException.class, () -> manager.createTask(clash));
+        }
+
+        created.sort(Comparator.comparing(Task::getStartTime));
+        assertEquals(created, manager.getPrioritizedTasks(), "Расписание шардов должно сливаться по времени.");
+        assertEquals(created.subList(0, 5), manager.getPrioritizedTasksPage(null, 5));
+        assertEquals(manager.getAllSubtasks().stream().sorted(Comparator.comparing(Task::getId)).toList(),
+                manager.getAllSubtasks(), "Списки шардов должны сливаться по id.");
+
+        manager.deleteSubtask(created.getFirst().getId());
+        manager.createTask(new Task(null, "free", "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                created.getFirst().getStartTime()));
+        assertEquals(start.plusMinutes(90),
+                manager.findFreeSlots(start.plusHours(1), Duration.ofMinutes(30), 1).getFirst().getStartTime());
+    }
+
+    @Test
+    public void movingSubtaskToMissingEpicLeavesItInPlace() {
+        final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        final Subtask timed = new Subtask(null, "timed", "d", TaskStatus.NEW, Duration.ofMinutes(30), start,
+                epic.getId());
+        manager.createSubtask(timed);
+        final long lastChange = manager.getLastChangeSequence();
+
+        assertThrows(TaskNotFoundException.class, () -> manager.updateSubtask(new Subtask(timed.getId(), "moved",
+                "d", TaskStatus.DONE, Duration.ofMinutes(30), start.plusHours(5), 10_000)));
+
+        assertEquals(timed, manager.getSubtask(timed.getId()), "Подзадача не должна была измениться.");
+        assertEquals(lastChange, manager.getLastChangeSequence(), "Неудачный перенос не должен публиковать событий.");
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.createTask(new Task(null, "clash", "d",
+                TaskStatus.NEW, Duration.ofMinutes(30), start)));
+
+        final EpicTask target = new EpicTask("target", "d");
+        manager.createEpicTask(target);
+        final Subtask moved = new Subtask(timed.getId(), "moved", "d", TaskStatus.IN_PROGRESS,
+                Duration.ofMinutes(30), start, target.getId());
+        manager.updateSubtask(moved);
+        assertEquals(moved, manager.getSubtask(timed.getId()));
+        assertEquals(List.of(moved), manager.getSubtasksOfEpic(target.getId()));
+        assertEquals(List.of(moved), manager.getPrioritizedTasks());
+    }
+
+    @Test
+    public void failedOrUntimedWritesReleaseTheReservedSlot() {
+        final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+
+        assertThrows(TaskNotFoundException.class, () -> manager.createSubtask(new Subtask(null, "orphan", "d",
+                TaskStatus.NEW, Duration.ofMinutes(30), start, 10_000)));
+        assertEquals(start, manager.findFreeSlots(start, Duration.ofMinutes(30), 1).getFirst().getStartTime(),
+                "Неудачное создание не должно занимать время.");
+
+        final Task timed = new Task(null, "timed", "d", TaskStatus.NEW, Duration.ofMinutes(30), start);
+        manager.createTask(timed);
+        assertEquals(start.plusMinutes(30),
+                manager.findFreeSlots(start, Duration.ofMinutes(30), 1).getFirst().getStartTime());
+
+        manager.updateTask(new Task(timed.getId(), "untimed", "d", TaskStatus.NEW, null, null));
+        assertEquals(start, manager.findFreeSlots(start, Duration.ofMinutes(30), 1).getFirst().getStartTime(),
+                "Задача без времени не должна удерживать прежний интервал.");
+        manager.createTask(new Task(null, "taken", "d", TaskStatus.NEW, Duration.ofMinutes(30), start));
+        assertEquals(1, manager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    public void rejectedBatchLeavesSubtasksMovedAcrossShardsInPlace() {
+        final LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        final EpicTask target = new EpicTask("target", "d");
+        manager.createEpicTask(target);
+        final Subtask timed = new Subtask(null, "timed", "d", TaskStatus.NEW, Duration.ofMinutes(30), start,
+                epic.getId());
+        manager.createSubtask(timed);
+        final Subtask moved = new Subtask(timed.getId(), "moved", "d", TaskStatus.DONE, Duration.ofMinutes(30),
+                start.plusHours(2), target.getId());
+        final Task clash = new Task(null, "clash", "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                start.plusHours(2).plusMinutes(10));
+
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.applyBatch(List.of(moved, clash)));
+
+        assertEquals(timed, manager.getSubtask(timed.getId()), "Подзадача не должна была измениться.");
+        assertTrue(manager.getSubtasksOfEpic(epic.getId()).contains(timed));
+        assertTrue(manager.getSubtasksOfEpic(target.getId()).isEmpty());
+
+        manager.applyBatch(List.of(moved));
+        assertEquals(List.of(moved), manager.getSubtasksOfEpic(target.getId()));
+        assertFalse(manager.getSubtasksOfEpic(epic.getId()).contains(moved));
+    }
+
+    @Test
+    public void mergedViewIsReusedUntilAShardChanges() {
+        for (int i = 0; i < 20; i++) {
+            manager.createTask(new Task("task" + i, "d"));
+        }
+        final TaskSnapshot snapshot = manager.getSnapshot();
+        final int size = snapshot.getTasks().size();
+
+        assertSame(snapshot, manager.getSnapshot(), "Без изменений шардов слияние не должно повторяться.");
+
+        final Task added = new Task("added", "d");
+        manager.createTask(added);
+        final TaskSnapshot updated = manager.getSnapshot();
+
+        assertNotSame(snapshot, updated);
+        assertEquals(size, snapshot.getTasks().size(), "Опубликованный снимок не должен меняться.");
+        assertEquals(size + 1, updated.getTasks().size());
+        assertEquals(added, updated.getTasks().getLast());
+        assertThrows(UnsupportedOperationException.class, () -> updated.getTasks().clear());
+    }
+
+}
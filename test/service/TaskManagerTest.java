@@ -1,10 +1,15 @@
 package service;
 
 import exceptions.InvalidReceivedTimeException;
+import exceptions.TaskNotFoundException;
+import model.ChangeType;
 import model.EpicTask;
 import model.Subtask;
 import model.Task;
+import model.TaskChangeEvent;
 import model.TaskStatus;
+import model.TaskType;
+import model.TimeSlot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,6 +17,10 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +53,10 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         subWithStatusInProgress.setStatus(TaskStatus.IN_PROGRESS);
     }
 
+    protected EpicTask storedEpic(int id) {
+        return manager.getEpicTask(id);
+    }
+
     @Test
     public void idShouldIncreaseBy1AfterExecutingMethodGenerateId() {
         Integer startingId = manager.getId();
@@ -108,12 +121,12 @@ public abstract class TaskManagerTest<T extends TaskManager> {
     @Test
     public void subtaskRemovedFromEpicWhenDelete() {
         manager.deleteSubtask(sub.getId());
-        assertTrue(epic.getSubtasks().isEmpty());
+        assertTrue(storedEpic(epic.getId()).getSubtasks().isEmpty());
     }
 
     @Test
     public void idSubtaskEqualsIdSubtaskInEpicSubtasks() {
-        assertEquals(sub.getId(), epic.getSubtasks().getFirst());
+        assertEquals(sub.getId(), storedEpic(epic.getId()).getSubtasks().getFirst());
     }
 
     @Test
@@ -125,7 +138,7 @@ public abstract class TaskManagerTest<T extends TaskManager> {
     @Test
     public void epicHasStatusDoneIfAllSubtasksHasStatusDone() {
         manager.updateSubtask(subWithStatusDone);
-        assertEquals(TaskStatus.DONE, epic.getStatus());
+        assertEquals(TaskStatus.DONE, storedEpic(epic.getId()).getStatus());
     }
 
     @Test
@@ -134,14 +147,14 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         manager.createSubtask(new Subtask("new_sub_t", "new_sub_d", epic.getId()));
         subWithStatusInProgress.setId(manager.getId());
         manager.updateSubtask(subWithStatusInProgress);
-        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, storedEpic(epic.getId()).getStatus());
     }
 
     @Test
     public void epicStatusIsInProgressIfEpicSubsListHasSubtaskWithStatusNew() {
         manager.updateSubtask(subWithStatusDone);
         manager.createSubtask(new Subtask("new_sub_t", "new_sub_d", epic.getId()));
-        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, storedEpic(epic.getId()).getStatus());
     }
 
     @Test
@@ -180,7 +193,7 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         correctManualSortedArray[1] = task3;
         correctManualSortedArray[2] = task4;
 
-        ArrayList<Task> prioritizedTasks = (ArrayList<Task>) manager.getPrioritizedTasks();
+        List<Task> prioritizedTasks = manager.getPrioritizedTasks();
         assertEquals(3, prioritizedTasks.size(), "Размеры массива и списка должны быть равны.");
 
         for (int i = 0; i < prioritizedTasks.size(); i++) {
@@ -188,4 +201,392 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         }
     }
 
+    @Test
+    public void updatedSubtaskReplacesItsOldScheduleEntry() {
+        Subtask sub2 = new Subtask(null, "s2", "d2", TaskStatus.NEW, Duration.ofMinutes(30),
+                LocalDateTime.of(2024, Month.MAY, 1, 10, 0), epic.getId());
+        manager.createSubtask(sub2);
+
+        Subtask updatedSub = new Subtask(sub2.getId(), "s2", "d2", TaskStatus.DONE, Duration.ofMinutes(30),
+                sub2.getStartTime().plusHours(1), epic.getId());
+        manager.updateSubtask(updatedSub);
+
+        assertEquals(1, manager.getPrioritizedTasks().size(), "Старая запись должна удаляться из расписания.");
+        assertEquals(updatedSub.getStartTime(), manager.getPrioritizedTasks().getFirst().getStartTime(),
+                "Расписание не обновлено.");
+        assertDoesNotThrow(() -> manager.createTask(new Task(null, "t", "d", TaskStatus.NEW,
+                Duration.ofMinutes(30), sub2.getStartTime())), "Освобожденное время должно быть доступно.");
+    }
+
+    @Test
+    public void conflictIsDetectedOnlyForOverlappingNeighbours() {
+        LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        for (int i = 0; i < 10; i++) {
+            manager.createTask(new Task(null, "t" + i, "d" + i, TaskStatus.NEW, Duration.ofMinutes(30),
+                    start.plusHours(i)));
+        }
+
+        assertDoesNotThrow(() -> manager.createTask(new Task(null, "gap", "d", TaskStatus.NEW,
+                Duration.ofMinutes(30), start.plusHours(4).plusMinutes(30))), "Стыковка интервалов не конфликт.");
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.createTask(new Task(null, "wide", "d",
+                TaskStatus.NEW, Duration.ofHours(3), start.plusHours(6).plusMinutes(40))));
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.createTask(new Task(null, "inner", "d",
+                TaskStatus.NEW, Duration.ofMinutes(5), start.plusHours(2).plusMinutes(10))));
+        assertDoesNotThrow(() -> manager.createTask(new Task(null, "before", "d", TaskStatus.NEW,
+                Duration.ofMinutes(30), start.minusMinutes(30))), "Интервал до первой задачи свободен.");
+    }
+
+    @Test
+    public void epicAttributesFollowSubtaskChanges() {
+        LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        EpicTask bigEpic = new EpicTask("big", "desc");
+        manager.createEpicTask(bigEpic);
+        List<Subtask> subtasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Subtask subtask = new Subtask(null, "s" + i, "d" + i, TaskStatus.DONE, Duration.ofMinutes(30),
+                    start.plusHours(i), bigEpic.getId());
+            manager.createSubtask(subtask);
+            subtasks.add(subtask);
+        }
+        EpicTask stored = storedEpic(bigEpic.getId());
+        assertEquals(TaskStatus.DONE, stored.getStatus());
+        assertEquals(start, stored.getStartTime());
+        assertEquals(start.plusHours(99).plusMinutes(30), stored.getEndTime());
+
+        Subtask last = subtasks.getLast();
+        manager.updateSubtask(new Subtask(last.getId(), "s", "d", TaskStatus.IN_PROGRESS, Duration.ofMinutes(30),
+                start.plusHours(200), bigEpic.getId()));
+        stored = storedEpic(bigEpic.getId());
+        assertEquals(TaskStatus.IN_PROGRESS, stored.getStatus());
+        assertEquals(start.plusHours(200).plusMinutes(30), stored.getEndTime());
+        assertEquals(Duration.between(start, start.plusHours(200).plusMinutes(30)), stored.getDuration());
+
+        manager.deleteSubtask(last.getId());
+        manager.deleteSubtask(subtasks.getFirst().getId());
+        stored = storedEpic(bigEpic.getId());
+        assertEquals(TaskStatus.DONE, stored.getStatus());
+        assertEquals(start.plusHours(1), stored.getStartTime());
+        assertEquals(start.plusHours(98).plusMinutes(30), stored.getEndTime());
+
+        manager.deleteAllSubtasks();
+        assertEquals(TaskStatus.NEW, storedEpic(bigEpic.getId()).getStatus());
+        assertNull(storedEpic(bigEpic.getId()).getStartTime());
+    }
+
+    @Test
+    public void tasksAreFoundAndDeletedByPrimitiveIdAfterMassRemoval() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Task newTask = new Task("t" + i, "d" + i);
+            manager.createTask(newTask);
+            ids.add(newTask.getId());
+        }
+        for (int i = 0; i < ids.size(); i += 3) {
+            manager.deleteTask(ids.get(i).intValue());
+        }
+
+        assertEquals(1 + 10_000 - (10_000 + 2) / 3, manager.getAllTasks().size());
+        for (int i = 0; i < ids.size(); i++) {
+            final int id = ids.get(i);
+            if (i % 3 == 0) {
+                assertThrows(TaskNotFoundException.class, () -> manager.getTask(id));
+            } else {
+                assertEquals("t" + i, manager.getTask(id).getTitle());
+            }
+        }
+        assertThrows(TaskNotFoundException.class, () -> manager.getTask((Integer) null));
+    }
+
+    @Test
+    public void listsAreSharedUntilNextWriteAndReadOnly() {
+        Task timed = new Task(null, "t", "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                LocalDateTime.of(2024, Month.MAY, 1, 9, 0));
+        manager.createTask(timed);
+
+        List<Task> tasks = manager.getAllTasks();
+        List<Task> prioritized = manager.getPrioritizedTasks();
+        assertSame(tasks, manager.getAllTasks(), "Без изменений список должен переиспользоваться.");
+        assertSame(prioritized, manager.getPrioritizedTasks(), "Без изменений список должен переиспользоваться.");
+        assertThrows(UnsupportedOperationException.class, () -> tasks.add(timed));
+        assertThrows(UnsupportedOperationException.class, () -> prioritized.removeFirst());
+
+        manager.deleteTask(timed.getId());
+        assertEquals(2, tasks.size(), "Выданный снимок не должен меняться.");
+        assertEquals(1, manager.getAllTasks().size());
+        assertTrue(manager.getPrioritizedTasks().isEmpty());
+        assertEquals(1, manager.getAllSubtasks().size());
+    }
+
+    @Test
+    public void listsTakenBeforeUpdateKeepOldVersions() {
+        Subtask second = new Subtask("second", "d", epic.getId());
+        manager.createSubtask(second);
+        List<Subtask> before = manager.getAllSubtasks();
+
+        manager.updateSubtask(new Subtask(sub.getId(), "renamed", "d", TaskStatus.DONE, null, null, epic.getId()));
+        List<Subtask> after = manager.getAllSubtasks();
+
+        assertNotSame(before, after, "После изменения должен публиковаться новый список.");
+        assertEquals("SubtaskTitle_3", before.getFirst().getTitle(), "Старый список не должен меняться.");
+        assertEquals("renamed", after.getFirst().getTitle());
+        assertSame(before.get(1), after.get(1), "Неизмененная подзадача должна разделяться между версиями.");
+        assertEquals(List.of(sub.getId(), second.getId()), after.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    public void pagesWalkAllTasksInIdOrder() {
+        LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        for (int i = 0; i < 25; i++) {
+            manager.createTask(new Task(null, "t" + i, "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                    start.plusHours(25 - i)));
+        }
+
+        List<Integer> walked = new ArrayList<>();
+        Integer after = null;
+        List<Task> page;
+        do {
+            page = manager.getTasksPage(after, 10);
+            page.forEach(t -> walked.add(t.getId()));
+            after = page.isEmpty() ? after : page.getLast().getId();
+        } while (page.size() == 10);
+        List<Integer> expected = manager.getAllTasks().stream().map(Task::getId).sorted().toList();
+        assertEquals(expected, walked);
+
+        List<Task> prioritized = manager.getPrioritizedTasksPage(start.plusHours(5), 3);
+        assertEquals(List.of(start.plusHours(6), start.plusHours(7), start.plusHours(8)),
+                prioritized.stream().map(Task::getStartTime).toList());
+        assertEquals(List.of(sub.getId()), manager.getSubtasksPage(null, 5).stream().map(Task::getId).toList());
+        assertTrue(manager.getEpicTasksPage(epic.getId(), 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> manager.getTasksPage(null, 0));
+    }
+
+    @Test
+    public void pagesFollowWritesMadeBetweenRequests() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Task created = new Task("t" + i, "d");
+            manager.createTask(created);
+            ids.add(created.getId());
+        }
+
+        List<Task> first = manager.getTasksPage(null, 3);
+        manager.deleteTask(ids.get(3));
+        manager.updateTask(new Task(ids.get(4), "renamed", "d", TaskStatus.DONE, null, null));
+        Task added = new Task("added", "d");
+        manager.createTask(added);
+        List<Task> second = manager.getTasksPage(first.getLast().getId(), 3);
+
+        assertEquals(List.of(task.getId(), ids.get(0), ids.get(1)), first.stream().map(Task::getId).toList());
+        assertEquals(List.of(ids.get(2), ids.get(4), ids.get(5)), second.stream().map(Task::getId).toList());
+        assertEquals("renamed", second.get(1).getTitle());
+        assertEquals(List.of(added.getId()), manager.getTasksPage(ids.get(5), 3).stream().map(Task::getId).toList());
+    }
+
+    @Test
+    public void findTasksFollowsStatusChangesAndDeletions() {
+        EpicTask otherEpic = new EpicTask("other", "desc");
+        manager.createEpicTask(otherEpic);
+        Subtask done = new Subtask("done", "d", otherEpic.getId());
+        done.setStatus(TaskStatus.DONE);
+        manager.createSubtask(done);
+        Subtask progress = new Subtask("progress", "d", epic.getId());
+        progress.setStatus(TaskStatus.IN_PROGRESS);
+        manager.createSubtask(progress);
+
+        assertEquals(List.of(progress), manager.findTasks(TaskType.SUBTASK, TaskStatus.IN_PROGRESS, null));
+        assertEquals(List.of(done), manager.findTasks(null, TaskStatus.DONE, null).stream()
+                .filter(t -> t.getType() == TaskType.SUBTASK).toList());
+        assertEquals(List.of(storedEpic(otherEpic.getId())), manager.findTasks(TaskType.EPIC, TaskStatus.DONE, null));
+        assertEquals(List.of(storedEpic(epic.getId())), manager.findTasks(TaskType.EPIC, TaskStatus.IN_PROGRESS, null));
+        assertEquals(List.of(sub, progress), manager.findTasks(TaskType.SUBTASK, null, epic.getId()));
+        assertEquals(List.of(progress), manager.findTasks(null, TaskStatus.IN_PROGRESS, epic.getId()));
+
+        Subtask finished = new Subtask(progress.getId(), "progress", "d", TaskStatus.DONE, null, null, epic.getId());
+        manager.updateSubtask(finished);
+        assertTrue(manager.findTasks(TaskType.SUBTASK, TaskStatus.IN_PROGRESS, null).isEmpty());
+        assertEquals(List.of(done, finished), manager.findTasks(TaskType.SUBTASK, TaskStatus.DONE, null));
+
+        manager.deleteEpicTask(otherEpic.getId());
+        assertEquals(List.of(finished), manager.findTasks(TaskType.SUBTASK, TaskStatus.DONE, null));
+        assertTrue(manager.findTasks(TaskType.EPIC, TaskStatus.DONE, null).isEmpty());
+        manager.deleteAllTasks();
+        assertTrue(manager.findTasks(TaskType.TASK, null, null).isEmpty());
+    }
+
+    @Test
+    public void searchFindsTasksByFoldedTermsAndFollowsUpdates() {
+        Task report = new Task("Квартальный ОТЧЁТ", "собрать цифры по продажам");
+        Task review = new Task("Ревью", "проверить отчет и цифры");
+        manager.createTask(report);
+        manager.createTask(review);
+
+        assertEquals(List.of(report, review), manager.searchTasks("отчет", 10));
+        assertEquals(List.of(review), manager.searchTasks("ЦИФРЫ, проверить", 10));
+        assertEquals(List.of(report), manager.searchTasks("отчёт", 1));
+        assertEquals(List.of(epic), manager.searchTasks("epictitle_2", 10));
+        assertTrue(manager.searchTasks("  ,. ", 10).isEmpty());
+
+        Task renamed = new Task(report.getId(), "План", "без цифр", TaskStatus.NEW, null, null);
+        manager.updateTask(renamed);
+        assertEquals(List.of(review), manager.searchTasks("отчет", 10));
+        manager.deleteTask(review.getId());
+        assertTrue(manager.searchTasks("отчет", 10).isEmpty());
+        assertEquals(List.of(renamed), manager.searchTasks("план", 10));
+    }
+
+    @Test
+    public void windowIncludesTasksStartedBeforeItAndExcludesItsEnd() {
+        LocalDateTime monday = LocalDateTime.of(2024, Month.MAY, 6, 0, 0);
+        Task longRunning = new Task(null, "long", "d", TaskStatus.NEW, Duration.ofDays(2), monday.minusDays(1));
+        Task inside = new Task(null, "inside", "d", TaskStatus.NEW, Duration.ofHours(1), monday.plusDays(3));
+        Task atEnd = new Task(null, "atEnd", "d", TaskStatus.NEW, Duration.ofHours(1), monday.plusDays(7));
+        Task before = new Task(null, "before", "d", TaskStatus.NEW, Duration.ofHours(1), monday.minusDays(3));
+        manager.createTask(longRunning);
+        manager.createTask(inside);
+        manager.createTask(atEnd);
+        manager.createTask(before);
+
+        assertEquals(List.of(longRunning, inside), manager.getPrioritizedTasks(monday, monday.plusDays(7)));
+        assertEquals(List.of(inside), manager.getPrioritizedTasks(monday.plusDays(1), monday.plusDays(7)));
+        assertEquals(List.of(before, longRunning), manager.getPrioritizedTasks(null, monday));
+        assertEquals(List.of(atEnd), manager.getPrioritizedTasks(monday.plusDays(5), null));
+        assertThrows(IllegalArgumentException.class, () -> manager.getPrioritizedTasks(monday, monday));
+    }
+
+    @Test
+    public void freeSlotsFillGapsBetweenScheduledTasks() {
+        LocalDateTime nine = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        manager.createTask(new Task(null, "a", "d", TaskStatus.NEW, Duration.ofMinutes(90), nine.minusMinutes(30)));
+        manager.createTask(new Task(null, "b", "d", TaskStatus.NEW, Duration.ofMinutes(60), nine.plusMinutes(150)));
+        manager.createTask(new Task(null, "c", "d", TaskStatus.NEW, Duration.ofMinutes(30), nine.plusMinutes(240)));
+
+        List<TimeSlot> slots = manager.findFreeSlots(nine, Duration.ofMinutes(45), 4);
+        assertEquals(List.of(
+                new TimeSlot(nine.plusMinutes(60), nine.plusMinutes(105)),
+                new TimeSlot(nine.plusMinutes(105), nine.plusMinutes(150)),
+                new TimeSlot(nine.plusMinutes(270), nine.plusMinutes(315)),
+                new TimeSlot(nine.plusMinutes(315), nine.plusMinutes(360))), slots);
+
+        for (TimeSlot slot : slots) {
+            manager.createTask(new Task(null, "slot", "d", TaskStatus.NEW, Duration.ofMinutes(45),
+                    slot.getStartTime()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> manager.findFreeSlots(nine, Duration.ZERO, 1));
+    }
+
+    @Test
+    public void batchIsAppliedTogetherAndRejectedAsAWhole() {
+        LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        EpicTask sprint = new EpicTask(500, "sprint", "d", TaskStatus.NEW, null, null);
+        Subtask first = new Subtask(null, "first", "d", TaskStatus.DONE, Duration.ofMinutes(30), start, 500);
+        Subtask second = new Subtask(null, "second", "d", TaskStatus.DONE, Duration.ofMinutes(30),
+                start.plusHours(1), 500);
+        Task single = new Task(null, "single", "d", TaskStatus.NEW, Duration.ofMinutes(30), start.plusHours(2));
+        manager.applyBatch(List.of(first, sprint, second, single));
+
+        assertEquals(List.of(first, second), manager.getSubtasksOfEpic(500));
+        assertEquals(TaskStatus.DONE, manager.getEpicTask(500).getStatus());
+        assertEquals(second.getEndTime(), manager.getEpicTask(500).getEndTime());
+        assertEquals(List.of(first, second, single), manager.getPrioritizedTasks());
+
+        int tasksBefore = manager.getAllTasks().size();
+        Task fresh = new Task(null, "fresh", "d", TaskStatus.NEW, Duration.ofMinutes(30), start.plusHours(5));
+        Task overlapping = new Task(null, "overlap", "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                start.plusHours(5).plusMinutes(10));
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.applyBatch(List.of(fresh, overlapping)));
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.applyBatch(List.of(
+                new Task(null, "booked", "d", TaskStatus.NEW, Duration.ofMinutes(30), start.plusMinutes(10)))));
+        assertThrows(TaskNotFoundException.class, () -> manager.applyBatch(List.of(fresh,
+                new Subtask("orphan", "d", 999))));
+        assertEquals(tasksBefore, manager.getAllTasks().size(), "Отклоненный пакет не должен применяться.");
+        assertNull(fresh.getId());
+
+        Subtask moved = new Subtask(first.getId(), "first", "d", TaskStatus.DONE, null, null, epic.getId());
+        manager.applyBatch(List.of(moved));
+        assertEquals(List.of(second), manager.getSubtasksOfEpic(500));
+        assertTrue(manager.getSubtasksOfEpic(epic.getId()).contains(moved));
+        assertEquals(TaskStatus.IN_PROGRESS, manager.getEpicTask(epic.getId()).getStatus());
+    }
+
+    @Test
+    public void changesAreSequencedAndDeliveredToListeners() throws InterruptedException {
+        long start = manager.getLastChangeSequence();
+        List<TaskChangeEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        TaskChangeListener listener = event -> {
+            received.add(event);
+            latch.countDown();
+        };
+        manager.addChangeListener(listener, start);
+
+        Task created = new Task("changed", "d");
+        manager.createTask(created);
+        Task updated = new Task(created.getId(), "changed again", "d", TaskStatus.DONE, null, null);
+        manager.updateTask(updated);
+        manager.deleteTask(created.getId());
+
+        List<TaskChangeEvent> changes = manager.getChangesSince(start, 10);
+        assertEquals(List.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED),
+                changes.stream().map(TaskChangeEvent::getChangeType).toList());
+        assertEquals(List.of(start + 1, start + 2, start + 3),
+                changes.stream().map(TaskChangeEvent::getSequence).toList());
+        assertNull(changes.get(0).getBefore());
+        assertEquals(created, changes.get(1).getBefore());
+        assertEquals("changed again", changes.get(1).getAfter().getTitle());
+        assertNull(changes.get(2).getAfter());
+        assertEquals(created.getId(), changes.get(2).getTaskId());
+        assertEquals(changes.subList(1, 3), manager.getChangesSince(start + 1, 10));
+        assertEquals(start + 3, manager.getLastChangeSequence());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Слушатель должен получить все изменения.");
+        assertEquals(changes, received);
+        manager.removeChangeListener(listener);
+        assertThrows(IllegalArgumentException.class, () -> manager.getChangesSince(-1, 10));
+    }
+
+    @Test
+    public void timedTasksCanBeUpdatedInTheirOwnSlot() {
+        LocalDateTime start = LocalDateTime.of(2024, Month.MAY, 1, 9, 0);
+        Task timed = new Task(null, "timed", "d", TaskStatus.NEW, Duration.ofMinutes(60), start);
+        manager.createTask(timed);
+        Subtask timedSub = new Subtask(null, "timed sub", "d", TaskStatus.NEW, Duration.ofMinutes(30),
+                start.plusHours(2), epic.getId());
+        manager.createSubtask(timedSub);
+
+        manager.updateSubtask(new Subtask(timedSub.getId(), "timed sub", "d", TaskStatus.IN_PROGRESS,
+                Duration.ofMinutes(30), start.plusHours(2), epic.getId()));
+        manager.updateTask(new Task(timed.getId(), "timed", "d", TaskStatus.DONE, Duration.ofMinutes(60), start));
+
+        assertEquals(TaskStatus.IN_PROGRESS, manager.getSubtask(timedSub.getId()).getStatus());
+        assertEquals(TaskStatus.DONE, manager.getTask(timed.getId()).getStatus());
+        assertThrows(InvalidReceivedTimeException.class, () -> manager.updateTask(new Task(timed.getId(), "timed",
+                "d", TaskStatus.DONE, Duration.ofMinutes(90), start.plusMinutes(30))));
+        assertEquals(List.of(manager.getTask(timed.getId()), manager.getSubtask(timedSub.getId())),
+                manager.getPrioritizedTasks());
+    }
+
+    @Test
+    public void epicsTakenBeforeUpdateKeepTheirState() {
+        EpicTask before = storedEpic(epic.getId());
+        List<EpicTask> listed = manager.getAllEpicTasks();
+
+        manager.updateEpicTask(new EpicTask(epic.getId(), "renamed", "d", TaskStatus.NEW, null, null));
+        Subtask timed = new Subtask(null, "timed", "d", TaskStatus.DONE, Duration.ofMinutes(30),
+                LocalDateTime.of(2024, Month.MAY, 1, 9, 0), epic.getId());
+        manager.createSubtask(timed);
+        manager.updateSubtask(subWithStatusDone);
+
+        assertEquals("EpicTitle_2", before.getTitle(), "Выданный эпик не должен меняться.");
+        assertEquals(TaskStatus.NEW, before.getStatus());
+        assertNull(before.getStartTime());
+        assertEquals(List.of(sub.getId()), before.getSubtasks());
+        assertEquals("EpicTitle_2", listed.getFirst().getTitle(), "Выданный список не должен меняться.");
+
+        EpicTask after = storedEpic(epic.getId());
+        assertEquals("renamed", after.getTitle());
+        assertEquals(TaskStatus.DONE, after.getStatus());
+        assertEquals(timed.getStartTime(), after.getStartTime());
+        assertEquals(List.of(sub.getId(), timed.getId()), after.getSubtasks());
+    }
+
 }